@@ -2,12 +2,14 @@ package com.hms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Hospital Management System - Backend Application
  * Entry point for the Spring Boot application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class HmsBackendApplication {
 
     public static void main(String[] args) {
@@ -3,6 +3,11 @@ package com.hms.controller;
 import com.hms.dto.ApiResponse;
 import com.hms.dto.AppointmentRequest;
 import com.hms.dto.AppointmentResponse;
+import com.hms.dto.BulkStatusUpdateRequest;
+import com.hms.dto.CursorPage;
+import com.hms.dto.DoctorStatsResponse;
+import com.hms.dto.SlotHoldResponse;
+import com.hms.dto.StatusUpdateResult;
 import com.hms.service.AppointmentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,12 +44,43 @@ public class AppointmentController {
                 .body(ApiResponse.success("Appointment booked successfully", appointment));
     }
 
+    /**
+     * POST /api/appointments/holds - Hold a slot briefly before booking it (patient only).
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<ApiResponse> holdSlot(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody AppointmentRequest request) {
+        SlotHoldResponse hold = appointmentService.holdSlot(userDetails.getUsername(), request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Slot held", hold));
+    }
+
+    /**
+     * DELETE /api/appointments/holds/{holdId} - Release a held slot (patient only).
+     */
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<ApiResponse> releaseHold(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String holdId) {
+        appointmentService.releaseHold(userDetails.getUsername(), holdId);
+        return ResponseEntity.ok(ApiResponse.success("Slot hold released"));
+    }
+
     /**
      * GET /api/appointments/patient - Get patient's appointments.
+     * Pass limit and/or cursor to page through the history newest first.
      */
     @GetMapping("/patient")
     public ResponseEntity<ApiResponse> getPatientAppointments(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            CursorPage<AppointmentResponse> page = appointmentService.getPatientAppointmentsPage(
+                    userDetails.getUsername(), cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success("Appointments retrieved", page));
+        }
         List<AppointmentResponse> appointments = appointmentService.getPatientAppointments(
                 userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success("Appointments retrieved", appointments));
@@ -52,10 +88,18 @@ public class AppointmentController {
 
     /**
      * GET /api/appointments/doctor - Get doctor's appointments.
+     * Pass limit and/or cursor to page through the history newest first.
      */
     @GetMapping("/doctor")
     public ResponseEntity<ApiResponse> getDoctorAppointments(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            CursorPage<AppointmentResponse> page = appointmentService.getDoctorAppointmentsPage(
+                    userDetails.getUsername(), cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success("Appointments retrieved", page));
+        }
         List<AppointmentResponse> appointments = appointmentService.getDoctorAppointments(
                 userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success("Appointments retrieved", appointments));
@@ -72,6 +116,24 @@ public class AppointmentController {
         return ResponseEntity.ok(ApiResponse.success("Today's appointments retrieved", appointments));
     }
 
+    /**
+     * GET /api/appointments/doctor/stats - Get doctor's dashboard statistics.
+     */
+    @GetMapping("/doctor/stats")
+    public ResponseEntity<ApiResponse> getDoctorStats(@AuthenticationPrincipal UserDetails userDetails) {
+        DoctorStatsResponse stats = appointmentService.getDoctorStats(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Statistics retrieved", stats));
+    }
+
+    /**
+     * POST /api/appointments/doctor/stats/recompute - Rebuild doctor's statistics from the full history.
+     */
+    @PostMapping("/doctor/stats/recompute")
+    public ResponseEntity<ApiResponse> recomputeDoctorStats(@AuthenticationPrincipal UserDetails userDetails) {
+        DoctorStatsResponse stats = appointmentService.recomputeDoctorStats(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Statistics recomputed", stats));
+    }
+
     /**
      * GET /api/appointments/{id} - Get appointment by ID.
      */
@@ -93,4 +155,17 @@ public class AppointmentController {
                 id, body.get("status"), userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success("Appointment status updated", appointment));
     }
+
+    /**
+     * PUT /api/appointments/status - Update the status of many appointments at once (doctor only).
+     * Returns one result per requested change.
+     */
+    @PutMapping("/status")
+    public ResponseEntity<ApiResponse> updateStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        List<StatusUpdateResult> results = appointmentService.updateStatuses(
+                request, userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Appointment statuses updated", results));
+    }
 }
@@ -6,10 +6,12 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 /**
- * Authentication Controller - handles login and registration.
+ * Authentication Controller - handles login, registration, logout and password changes.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -37,4 +39,24 @@ public class AuthController {
         AuthResponse authResponse = authService.login(request);
         return ResponseEntity.ok(ApiResponse.success("Login successful", authResponse));
     }
+
+    /**
+     * POST /api/auth/logout - Revoke every token issued to the current user.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse> logout(@AuthenticationPrincipal UserDetails userDetails) {
+        authService.logout(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Logged out"));
+    }
+
+    /**
+     * PUT /api/auth/password - Change the current user's password; returns a new token.
+     */
+    @PutMapping("/password")
+    public ResponseEntity<ApiResponse> changePassword(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody ChangePasswordRequest request) {
+        AuthResponse authResponse = authService.changePassword(userDetails.getUsername(), request);
+        return ResponseEntity.ok(ApiResponse.success("Password changed", authResponse));
+    }
 }
@@ -1,14 +1,22 @@
 package com.hms.controller;
 
 import com.hms.dto.ApiResponse;
+import com.hms.dto.AvailableSlotsResponse;
 import com.hms.dto.DoctorResponse;
+import com.hms.dto.DoctorScheduleResponse;
+import com.hms.service.DoctorScheduleService;
 import com.hms.service.DoctorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,35 +28,95 @@ import java.util.Map;
 @CrossOrigin
 public class DoctorController {
 
+    private static final CacheControl PUBLIC_REVALIDATE = CacheControl.noCache().cachePublic();
+
     @Autowired
     private DoctorService doctorService;
+    @Autowired
+    private DoctorScheduleService scheduleService;
 
     /**
      * GET /api/doctors - Get all doctors (public).
+     * Served from the pre-serialized doctor directory snapshot; honours If-None-Match.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllDoctors() {
-        List<DoctorResponse> doctors = doctorService.getAllDoctors();
-        return ResponseEntity.ok(ApiResponse.success("Doctors retrieved", doctors));
+    public ResponseEntity<byte[]> getAllDoctors(WebRequest webRequest) {
+        String etag = doctorService.getDirectoryETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PUBLIC_REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(doctorService.getAllDoctorsJson());
     }
 
     /**
-     * GET /api/doctors/{id} - Get doctor by ID (public).
+     * GET /api/doctors/{id} - Get doctor by ID (public); honours If-None-Match.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getDoctorById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse> getDoctorById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = doctorService.getDirectoryETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         DoctorResponse doctor = doctorService.getDoctorById(id);
-        return ResponseEntity.ok(ApiResponse.success("Doctor retrieved", doctor));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PUBLIC_REVALIDATE)
+                .body(ApiResponse.success("Doctor retrieved", doctor));
     }
 
     /**
-     * GET /api/doctors/specialization/{spec} - Get doctors by specialization (public).
+     * GET /api/doctors/specialization/{spec} - Get doctors by specialization (public);
+     * honours If-None-Match.
      */
     @GetMapping("/specialization/{specialization}")
     public ResponseEntity<ApiResponse> getDoctorsBySpecialization(
-            @PathVariable String specialization) {
+            @PathVariable String specialization, WebRequest webRequest) {
+        String etag = doctorService.getDirectoryETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<DoctorResponse> doctors = doctorService.getDoctorsBySpecialization(specialization);
-        return ResponseEntity.ok(ApiResponse.success("Doctors retrieved", doctors));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PUBLIC_REVALIDATE)
+                .body(ApiResponse.success("Doctors retrieved", doctors));
+    }
+
+    /**
+     * GET /api/doctors/{id}/schedule - Get a doctor's weekly working hours (public).
+     */
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<ApiResponse> getSchedule(@PathVariable Long id) {
+        DoctorScheduleResponse schedule = scheduleService.getSchedule(id);
+        return ResponseEntity.ok(ApiResponse.success("Schedule retrieved", schedule));
+    }
+
+    /**
+     * GET /api/doctors/{id}/slots?from&to - Get free appointment slots between two dates (public).
+     */
+    @GetMapping("/{id}/slots")
+    public ResponseEntity<ApiResponse> getAvailableSlots(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AvailableSlotsResponse slots = scheduleService.getAvailableSlots(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success("Available slots retrieved", slots));
+    }
+
+    /**
+     * PUT /api/doctors/schedule - Replace own weekly working hours and slot length (doctor only).
+     */
+    @PutMapping("/schedule")
+    public ResponseEntity<ApiResponse> updateSchedule(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody DoctorScheduleResponse request) {
+        DoctorScheduleResponse schedule = scheduleService.updateSchedule(
+                userDetails.getUsername(), request);
+        return ResponseEntity.ok(ApiResponse.success("Schedule updated", schedule));
     }
 
     /**
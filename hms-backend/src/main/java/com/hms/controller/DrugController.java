@@ -0,0 +1,33 @@
+package com.hms.controller;
+
+import com.hms.dto.ApiResponse;
+import com.hms.dto.DrugSuggestion;
+import com.hms.service.DrugCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Drug Controller - drug catalog lookups for writing prescriptions.
+ */
+@RestController
+@RequestMapping("/api/drugs")
+@CrossOrigin
+public class DrugController {
+
+    @Autowired
+    private DrugCatalog drugCatalog;
+
+    /**
+     * GET /api/drugs/suggest?q=amox&limit=10 - Drugs whose name starts with q.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<DrugSuggestion> suggestions = drugCatalog.suggest(q, limit);
+        return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved", suggestions));
+    }
+}
@@ -0,0 +1,34 @@
+package com.hms.controller;
+
+import com.hms.service.ActorService;
+import com.hms.service.EventStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Event Stream Controller - live appointment updates for the logged-in user.
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin
+public class EventStreamController {
+
+    @Autowired
+    private EventStreamService eventStreamService;
+    @Autowired
+    private ActorService actorService;
+
+    /**
+     * GET /api/events/stream - Server-Sent Events stream of the user's appointment changes.
+     * Event names are BOOKED, STATUS_CHANGED, PRESCRIPTION_ISSUED, PAYMENT_COMPLETED and RESYNC,
+     * plus WAITLIST_OFFER (the offered waitlist entry) for patients.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails userDetails) {
+        return eventStreamService.subscribe(actorService.resolve(userDetails.getUsername()));
+    }
+}
@@ -1,7 +1,9 @@
 package com.hms.controller;
 
 import com.hms.dto.ApiResponse;
+import com.hms.dto.PatientDashboardResponse;
 import com.hms.dto.PatientResponse;
+import com.hms.service.PatientDashboardService;
 import com.hms.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,8 @@ public class PatientController {
 
     @Autowired
     private PatientService patientService;
+    @Autowired
+    private PatientDashboardService dashboardService;
 
     /**
      * GET /api/patients/profile - Get own profile.
@@ -30,6 +34,17 @@ public class PatientController {
         return ResponseEntity.ok(ApiResponse.success("Profile retrieved", patient));
     }
 
+    /**
+     * GET /api/patients/dashboard - Get upcoming appointments, recent prescriptions,
+     * unpaid appointments and counts in one response.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse> getDashboard(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        PatientDashboardResponse dashboard = dashboardService.getDashboard(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Dashboard retrieved", dashboard));
+    }
+
     /**
      * PUT /api/patients/profile - Update own profile.
      */
@@ -1,9 +1,15 @@
 package com.hms.controller;
 
 import com.hms.dto.ApiResponse;
+import com.hms.dto.CursorPage;
+import com.hms.dto.PrescriptionDocument;
 import com.hms.dto.PrescriptionRequest;
 import com.hms.dto.PrescriptionResponse;
+import com.hms.service.PrescriptionDocumentRenderer;
+import com.hms.service.PrescriptionDocumentService;
 import com.hms.service.PrescriptionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,6 +18,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -24,6 +31,8 @@ public class PrescriptionController {
 
     @Autowired
     private PrescriptionService prescriptionService;
+    @Autowired
+    private PrescriptionDocumentService documentService;
 
     /**
      * POST /api/prescriptions - Create prescription (doctor only).
@@ -51,10 +60,18 @@ public class PrescriptionController {
 
     /**
      * GET /api/prescriptions/patient - Get patient's prescriptions.
+     * Pass limit and/or cursor to page through the history newest first.
      */
     @GetMapping("/patient")
     public ResponseEntity<ApiResponse> getPatientPrescriptions(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            CursorPage<PrescriptionResponse> page = prescriptionService.getPatientPrescriptionsPage(
+                    userDetails.getUsername(), cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success("Prescriptions retrieved", page));
+        }
         List<PrescriptionResponse> prescriptions = prescriptionService.getPatientPrescriptions(
                 userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success("Prescriptions retrieved", prescriptions));
@@ -62,12 +79,35 @@ public class PrescriptionController {
 
     /**
      * GET /api/prescriptions/doctor - Get doctor's issued prescriptions.
+     * Pass limit and/or cursor to page through the history newest first.
      */
     @GetMapping("/doctor")
     public ResponseEntity<ApiResponse> getDoctorPrescriptions(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            CursorPage<PrescriptionResponse> page = prescriptionService.getDoctorPrescriptionsPage(
+                    userDetails.getUsername(), cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success("Prescriptions retrieved", page));
+        }
         List<PrescriptionResponse> prescriptions = prescriptionService.getDoctorPrescriptions(
                 userDetails.getUsername());
         return ResponseEntity.ok(ApiResponse.success("Prescriptions retrieved", prescriptions));
     }
+
+    /**
+     * GET /api/prescriptions/{id}/document - Printable prescription (issuing doctor or patient).
+     * Supports ETag revalidation and single byte ranges.
+     */
+    @GetMapping("/{id}/document")
+    public void getPrescriptionDocument(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        PrescriptionDocument document = documentService.getDocument(userDetails.getUsername(), id);
+        FileRangeResponder.send(request, response, document.getPath(), document.getSize(),
+                document.getContentKey(), PrescriptionDocumentRenderer.CONTENT_TYPE, document.getFileName());
+    }
 }
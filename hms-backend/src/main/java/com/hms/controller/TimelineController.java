@@ -0,0 +1,50 @@
+package com.hms.controller;
+
+import com.hms.service.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Timeline Controller - a patient's appointments, prescriptions and payments, newest first.
+ * Responses are NDJSON: one entry per line, then a {"nextCursor": ...} line if a limit cut the stream short.
+ */
+@RestController
+@RequestMapping("/api/timeline")
+@CrossOrigin
+public class TimelineController {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    /**
+     * GET /api/timeline - Stream own timeline (patient only).
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getOwnTimeline(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        StreamingResponseBody body = timelineService.openPatientTimeline(
+                userDetails.getUsername(), cursor, limit);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(TimelineService.NDJSON)).body(body);
+    }
+
+    /**
+     * GET /api/timeline/patients/{patientId} - Stream a patient's timeline (doctor only, own patients).
+     */
+    @GetMapping("/patients/{patientId}")
+    public ResponseEntity<StreamingResponseBody> getPatientTimeline(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        StreamingResponseBody body = timelineService.openTimelineForDoctor(
+                userDetails.getUsername(), patientId, cursor, limit);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(TimelineService.NDJSON)).body(body);
+    }
+}
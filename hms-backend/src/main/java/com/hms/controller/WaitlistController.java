@@ -0,0 +1,81 @@
+package com.hms.controller;
+
+import com.hms.dto.ApiResponse;
+import com.hms.dto.WaitlistPriorityRequest;
+import com.hms.dto.WaitlistRequest;
+import com.hms.dto.WaitlistResponse;
+import com.hms.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Waitlist Controller - lets patients wait for freed appointment slots and doctors prioritize them.
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /**
+     * POST /api/waitlist - Join a doctor's waitlist for a date range (patient only).
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse> join(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody WaitlistRequest request) {
+        WaitlistResponse entry = waitlistService.join(userDetails.getUsername(), request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Added to waitlist", entry));
+    }
+
+    /**
+     * GET /api/waitlist - Get the patient's waitlist entries, including open slot offers.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse> getEntries(@AuthenticationPrincipal UserDetails userDetails) {
+        List<WaitlistResponse> entries = waitlistService.getPatientEntries(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Waitlist retrieved", entries));
+    }
+
+    /**
+     * DELETE /api/waitlist/{id} - Leave a waitlist (patient only).
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse> cancel(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        waitlistService.cancel(userDetails.getUsername(), id);
+        return ResponseEntity.ok(ApiResponse.success("Removed from waitlist"));
+    }
+
+    /**
+     * GET /api/waitlist/doctor - Get the doctor's active waitlist entries in offer order (doctor only).
+     */
+    @GetMapping("/doctor")
+    public ResponseEntity<ApiResponse> getDoctorEntries(@AuthenticationPrincipal UserDetails userDetails) {
+        List<WaitlistResponse> entries = waitlistService.getDoctorEntries(userDetails.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Waitlist retrieved", entries));
+    }
+
+    /**
+     * PUT /api/waitlist/doctor/{id}/priority - Set the priority (0-10) of a waitlist entry (doctor only).
+     */
+    @PutMapping("/doctor/{id}/priority")
+    public ResponseEntity<ApiResponse> setPriority(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id,
+            @Valid @RequestBody WaitlistPriorityRequest request) {
+        WaitlistResponse entry = waitlistService.setPriority(userDetails.getUsername(), id, request.getPriority());
+        return ResponseEntity.ok(ApiResponse.success("Waitlist priority updated", entry));
+    }
+}
@@ -0,0 +1,20 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A drug from one of a patient's earlier prescriptions, with the period it was prescribed for.
+ */
+@Getter
+@AllArgsConstructor
+public class ActiveMedication {
+    private final String drugName;
+    private final LocalDateTime issuedAt;
+    private final Integer durationDays;
+
+    public boolean isActiveAt(LocalDateTime time) {
+        return issuedAt.plusDays(durationDays).isAfter(time);
+    }
+}
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.Role;
+import lombok.*;
+
+/**
+ * Resolved identity of the calling user: user id, role and doctor/patient profile id.
+ */
+@Getter
+@AllArgsConstructor
+public class ActorInfo {
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final Long doctorId;
+    private final Long patientId;
+}
@@ -1,5 +1,6 @@
 package com.hms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 /**
@@ -13,6 +14,9 @@ public class ApiResponse {
     private String message;
     private Object data;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static ApiResponse success(String message) {
         return ApiResponse.builder().success(true).message(message).build();
     }
@@ -21,6 +25,11 @@ public class ApiResponse {
         return ApiResponse.builder().success(true).message(message).data(data).build();
     }
 
+    public static ApiResponse success(String message, CursorPage<?> page) {
+        return ApiResponse.builder().success(true).message(message)
+                .data(page.getItems()).nextCursor(page.getNextCursor()).build();
+    }
+
     public static ApiResponse error(String message) {
         return ApiResponse.builder().success(false).message(message).build();
     }
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.*;
+
+/**
+ * Number of a doctor's appointments in one status and calendar month.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentCount {
+    private final Long doctorId;
+    private final AppointmentStatus status;
+    private final Integer year;
+    private final Integer month;
+    private final Long count;
+}
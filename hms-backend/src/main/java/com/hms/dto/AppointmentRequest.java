@@ -20,4 +20,7 @@ public class AppointmentRequest {
     private LocalDateTime appointmentDateTime;
 
     private String reason;
+
+    /** Hold taken via POST /api/appointments/holds; when present the booking confirms that hold. */
+    private String holdId;
 }
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
  */
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class AppointmentResponse {
     private Long id;
     private Long patientId;
@@ -0,0 +1,18 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the free appointment slots of a doctor within a date window.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AvailableSlotsResponse {
+    private Long doctorId;
+    private Integer slotMinutes;
+    private List<LocalDateTime> slots;
+}
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An appointment that currently occupies a doctor's time slot.
+ */
+@Getter
+@AllArgsConstructor
+public class BookedSlot {
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final LocalDateTime appointmentDateTime;
+    private final Integer slotMinutes;
+}
@@ -0,0 +1,21 @@
+package com.hms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for updating the status of many appointments at once.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one update is required")
+    @Size(max = 200, message = "At most 200 updates are allowed per request")
+    private List<@Valid StatusUpdateItem> updates;
+}
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for a doctor's weekly schedule template: slot length plus working-hours ranges.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DoctorScheduleResponse {
+    private Long doctorId;
+    private Integer slotMinutes;
+    private List<WorkingHoursResponse> hours;
+}
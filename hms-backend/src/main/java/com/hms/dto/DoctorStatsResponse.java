@@ -0,0 +1,23 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a doctor's dashboard statistics.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DoctorStatsResponse {
+    private Long doctorId;
+    private Long totalAppointments;
+    private Map<AppointmentStatus, Long> byStatus;
+    private Double totalRevenue;
+    private List<MonthlyStats> months;
+    private LocalDateTime recomputedAt;
+}
@@ -0,0 +1,24 @@
+package com.hms.dto;
+
+import lombok.*;
+
+/**
+ * A known interaction between a newly prescribed drug and another of the patient's medications.
+ */
+@Getter
+@AllArgsConstructor
+public class DrugInteractionWarning {
+
+    public enum Severity {
+        MINOR,
+        MODERATE,
+        MAJOR
+    }
+
+    private final String drug;
+    private final String interactingDrug;
+    private final Severity severity;
+    private final String description;
+    /** True when the interacting drug comes from another, still active prescription. */
+    private final boolean fromActivePrescription;
+}
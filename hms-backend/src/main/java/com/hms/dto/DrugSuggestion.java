@@ -0,0 +1,13 @@
+package com.hms.dto;
+
+import lombok.*;
+
+/**
+ * A drug from the catalog offered as an autocomplete suggestion.
+ */
+@Getter
+@AllArgsConstructor
+public class DrugSuggestion {
+    private final String name;
+    private final String drugClass;
+}
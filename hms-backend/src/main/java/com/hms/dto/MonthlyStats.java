@@ -0,0 +1,18 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.YearMonth;
+
+/**
+ * DTO for one month of a doctor's dashboard statistics.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class MonthlyStats {
+    private YearMonth month;
+    private Long appointments;
+    private Long completed;
+    private Double revenue;
+}
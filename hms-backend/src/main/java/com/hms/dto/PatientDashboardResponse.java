@@ -0,0 +1,24 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the patient dashboard.
+ * Sections that could not be loaded within the time budget are null and listed in unavailableSections.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PatientDashboardResponse {
+    private Long patientId;
+    private List<AppointmentResponse> upcomingAppointments;
+    private List<PrescriptionResponse> recentPrescriptions;
+    private List<AppointmentResponse> outstandingPayments;
+    private Map<AppointmentStatus, Long> appointmentCounts;
+    private Long prescriptionCount;
+    private List<String> unavailableSections;
+}
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.nio.file.Path;
+
+/**
+ * A rendered prescription document in the on-disk cache, named by the hash of its content.
+ */
+@Getter
+@AllArgsConstructor
+public class PrescriptionDocument {
+    private final Path path;
+    private final String contentKey;
+    private final long size;
+    private final String fileName;
+}
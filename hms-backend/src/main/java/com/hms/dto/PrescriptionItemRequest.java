@@ -0,0 +1,30 @@
+package com.hms.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/**
+ * DTO for one medication line of a new prescription.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PrescriptionItemRequest {
+
+    @NotBlank(message = "Drug is required")
+    @Size(max = 100, message = "Drug name must be at most 100 characters")
+    private String drugName;
+
+    @NotBlank(message = "Dose is required")
+    @Size(max = 50, message = "Dose must be at most 50 characters")
+    private String dose;
+
+    @NotBlank(message = "Frequency is required")
+    @Size(max = 50, message = "Frequency must be at most 50 characters")
+    private String frequency;
+
+    @NotNull(message = "Duration is required")
+    @Min(value = 1, message = "Duration must be at least 1 day")
+    @Max(value = 365, message = "Duration must be at most 365 days")
+    private Integer durationDays;
+}
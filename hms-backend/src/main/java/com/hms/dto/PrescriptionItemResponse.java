@@ -0,0 +1,19 @@
+package com.hms.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+/**
+ * DTO for one medication line of a prescription.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PrescriptionItemResponse {
+    @JsonIgnore
+    private Long prescriptionId;
+    private String drugName;
+    private String dose;
+    private String frequency;
+    private Integer durationDays;
+}
@@ -1,11 +1,16 @@
 package com.hms.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.util.List;
+
 /**
  * DTO for creating a prescription.
+ * Medications are given as structured items; free-text medications are only used when there are no items.
  */
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -18,8 +23,11 @@ public class PrescriptionRequest {
     @NotBlank(message = "Diagnosis is required")
     private String diagnosis;
 
-    @NotBlank(message = "Medications are required")
     private String medications;
 
+    @Valid
+    @Size(max = 30, message = "At most 30 medications per prescription")
+    private List<PrescriptionItemRequest> items;
+
     private String notes;
 }
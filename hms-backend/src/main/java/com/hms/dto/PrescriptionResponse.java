@@ -3,6 +3,7 @@ package com.hms.dto;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for prescription response.
@@ -21,4 +22,17 @@ public class PrescriptionResponse {
     private String notes;
     private LocalDateTime issuedAt;
     private LocalDateTime appointmentDateTime;
+    private List<PrescriptionItemResponse> items;
+    /** Drug interactions found when the prescription was issued; only set on creation. */
+    private List<DrugInteractionWarning> warnings;
+
+    /**
+     * Projection constructor; items are filled in separately.
+     */
+    public PrescriptionResponse(Long id, Long appointmentId, String doctorName, String doctorSpecialization,
+                                String patientName, String diagnosis, String medications, String notes,
+                                LocalDateTime issuedAt, LocalDateTime appointmentDateTime) {
+        this(id, appointmentId, doctorName, doctorSpecialization, patientName, diagnosis, medications, notes,
+                issuedAt, appointmentDateTime, null, null);
+    }
 }
@@ -0,0 +1,20 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An upcoming appointment that a reminder is sent for.
+ */
+@Getter
+@AllArgsConstructor
+public class Reminder {
+    private final Long appointmentId;
+    private final Long patientId;
+    private final String patientName;
+    private final String patientEmail;
+    private final Long doctorId;
+    private final String doctorName;
+    private final LocalDateTime appointmentDateTime;
+}
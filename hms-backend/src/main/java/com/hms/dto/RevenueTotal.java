@@ -0,0 +1,15 @@
+package com.hms.dto;
+
+import lombok.*;
+
+/**
+ * Completed payments for a doctor's appointments in one calendar month.
+ */
+@Getter
+@AllArgsConstructor
+public class RevenueTotal {
+    private final Long doctorId;
+    private final Integer year;
+    private final Integer month;
+    private final Double amount;
+}
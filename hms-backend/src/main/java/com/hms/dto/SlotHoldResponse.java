@@ -0,0 +1,18 @@
+package com.hms.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a short-lived hold on a doctor's time slot.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SlotHoldResponse {
+    private String holdId;
+    private Long doctorId;
+    private LocalDateTime appointmentDateTime;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.*;
+
+/**
+ * Number of appointments in one status.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusCount {
+    private final AppointmentStatus status;
+    private final Long count;
+}
@@ -0,0 +1,20 @@
+package com.hms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * DTO for one appointment status change within a bulk update.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StatusUpdateItem {
+
+    @NotNull(message = "Appointment ID is required")
+    private Long appointmentId;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+}
@@ -0,0 +1,17 @@
+package com.hms.dto;
+
+import lombok.*;
+
+/**
+ * DTO for the outcome of one item of a bulk status update.
+ * On success the updated appointment is included; otherwise message explains the failure.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StatusUpdateResult {
+    private Long appointmentId;
+    private boolean success;
+    private String message;
+    private AppointmentResponse appointment;
+}
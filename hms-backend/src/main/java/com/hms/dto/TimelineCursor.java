@@ -0,0 +1,39 @@
+package com.hms.dto;
+
+import com.hms.exception.BadRequestException;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque timeline cursor: the (timestamp, type, id) of the last entry already returned.
+ */
+@Getter
+@AllArgsConstructor
+public class TimelineCursor {
+    private final LocalDateTime timestamp;
+    private final TimelineEntry.Type type;
+    private final Long id;
+
+    public static TimelineCursor of(TimelineEntry entry) {
+        return new TimelineCursor(entry.getOccurredAt(), entry.getType(), entry.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + type + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TimelineCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new TimelineCursor(LocalDateTime.parse(parts[0]), TimelineEntry.Type.valueOf(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
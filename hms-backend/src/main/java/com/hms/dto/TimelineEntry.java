@@ -0,0 +1,33 @@
+package com.hms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one event in a patient's medical timeline.
+ * Entries are ordered newest first, then by type, then by id descending.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimelineEntry {
+
+    /** Declaration order is the tie-break order for entries at the same instant. */
+    public enum Type {
+        APPOINTMENT,
+        PRESCRIPTION,
+        PAYMENT
+    }
+
+    private Type type;
+    private Long id;
+    private LocalDateTime occurredAt;
+    private Long appointmentId;
+    private String doctorName;
+    private String summary;
+    private String status;
+    private Double amount;
+}
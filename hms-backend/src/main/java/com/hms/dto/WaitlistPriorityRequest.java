@@ -0,0 +1,18 @@
+package com.hms.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/**
+ * DTO for changing the priority of a waitlist entry (doctor action).
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class WaitlistPriorityRequest {
+
+    @NotNull(message = "Priority is required")
+    @Min(value = 0, message = "Priority must be at least 0")
+    @Max(value = 10, message = "Priority must be at most 10")
+    private Integer priority;
+}
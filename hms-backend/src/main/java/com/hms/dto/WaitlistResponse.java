@@ -0,0 +1,29 @@
+package com.hms.dto;
+
+import com.hms.entity.enums.WaitlistStatus;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a waitlist entry. While OFFERED, holdId can be passed to POST /api/appointments
+ * to book the offered slot before offerExpiresAt.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class WaitlistResponse {
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private Long patientId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Integer priority;
+    private WaitlistStatus status;
+    private LocalDateTime offeredSlot;
+    private String holdId;
+    private LocalDateTime offerExpiresAt;
+    private LocalDateTime createdAt;
+}
@@ -11,7 +11,24 @@ import java.time.LocalDateTime;
  * Appointment entity - represents a booking between a patient and doctor.
  */
 @Entity
-@Table(name = "appointments")
+@NamedEntityGraph(name = "Appointment.detail",
+        attributeNodes = {
+                @NamedAttributeNode(value = "patient", subgraph = "patient"),
+                @NamedAttributeNode(value = "doctor", subgraph = "doctor")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "patient", attributeNodes = @NamedAttributeNode("user")),
+                @NamedSubgraph(name = "doctor", attributeNodes = @NamedAttributeNode("user"))
+        })
+@Table(name = "appointments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointments_doctor_slot",
+                columnNames = {"doctor_id", "active_slot"}),
+        indexes = {
+        @Index(name = "idx_appointments_patient_time", columnList = "patient_id, appointment_date_time, id"),
+        @Index(name = "idx_appointments_doctor_time", columnList = "doctor_id, appointment_date_time, id"),
+        @Index(name = "idx_appointments_status", columnList = "status, id"),
+        @Index(name = "idx_appointments_time", columnList = "appointment_date_time")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -21,17 +38,31 @@ public class Appointment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
     @Column(name = "appointment_date_time", nullable = false)
     private LocalDateTime appointmentDateTime;
 
+    /**
+     * Copy of appointmentDateTime while the appointment holds its slot, NULL once cancelled or rejected.
+     * Backs the unique (doctor_id, active_slot) constraint against double booking.
+     */
+    @Column(name = "active_slot")
+    private LocalDateTime activeSlot;
+
+    /**
+     * When a node claimed this appointment's reminder for sending; NULL while it is still to be sent.
+     * Shared by all nodes, so each reminder goes out once however many instances run.
+     */
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AppointmentStatus status = AppointmentStatus.PENDING;
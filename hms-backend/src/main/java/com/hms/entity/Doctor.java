@@ -8,6 +8,7 @@ import lombok.*;
  * Linked to User entity via one-to-one relationship.
  */
 @Entity
+@NamedEntityGraph(name = "Doctor.withUser", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "doctors")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -18,7 +19,7 @@ public class Doctor {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -38,4 +39,7 @@ public class Doctor {
 
     @Column(columnDefinition = "TEXT")
     private String bio;
+
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
 }
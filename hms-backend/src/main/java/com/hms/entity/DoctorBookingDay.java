@@ -0,0 +1,30 @@
+package com.hms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Doctor booking day - one lockable row per doctor and calendar day, so bookings of the same doctor on
+ * different days do not wait for each other. Holds no data besides its key.
+ */
+@Entity
+@Table(name = "doctor_booking_days", uniqueConstraints =
+        @UniqueConstraint(name = "uk_booking_days_doctor_date", columnNames = {"doctor_id", "booking_date"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DoctorBookingDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+}
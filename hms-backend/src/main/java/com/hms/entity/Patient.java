@@ -9,6 +9,7 @@ import lombok.*;
  * Linked to User entity via one-to-one relationship.
  */
 @Entity
+@NamedEntityGraph(name = "Patient.withUser", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "patients")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -19,7 +20,7 @@ public class Patient {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -12,6 +12,16 @@ import java.time.LocalDateTime;
  * Payment entity - tracks payments made for appointments.
  */
 @Entity
+@NamedEntityGraph(name = "Payment.detail",
+        attributeNodes = @NamedAttributeNode(value = "appointment", subgraph = "appointment"),
+        subgraphs = {
+                @NamedSubgraph(name = "appointment", attributeNodes = {
+                        @NamedAttributeNode(value = "patient", subgraph = "patient"),
+                        @NamedAttributeNode(value = "doctor", subgraph = "doctor")
+                }),
+                @NamedSubgraph(name = "patient", attributeNodes = @NamedAttributeNode("user")),
+                @NamedSubgraph(name = "doctor", attributeNodes = @NamedAttributeNode("user"))
+        })
 @Table(name = "payments")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -22,7 +32,7 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
@@ -10,7 +10,20 @@ import java.time.LocalDateTime;
  * Prescription entity - digital prescriptions issued by doctors.
  */
 @Entity
-@Table(name = "prescriptions")
+@NamedEntityGraph(name = "Prescription.detail",
+        attributeNodes = {
+                @NamedAttributeNode("appointment"),
+                @NamedAttributeNode(value = "doctor", subgraph = "doctor"),
+                @NamedAttributeNode(value = "patient", subgraph = "patient")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "doctor", attributeNodes = @NamedAttributeNode("user")),
+                @NamedSubgraph(name = "patient", attributeNodes = @NamedAttributeNode("user"))
+        })
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_patient_issued", columnList = "patient_id, issued_at, id"),
+        @Index(name = "idx_prescriptions_doctor_issued", columnList = "doctor_id, issued_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -20,15 +33,15 @@ public class Prescription {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
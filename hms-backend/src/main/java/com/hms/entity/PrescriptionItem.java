@@ -0,0 +1,38 @@
+package com.hms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Prescription item - one medication line of a prescription.
+ */
+@Entity
+@Table(name = "prescription_items", indexes = {
+        @Index(name = "idx_prescription_items_prescription", columnList = "prescription_id"),
+        @Index(name = "idx_prescription_items_drug", columnList = "drug_name")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PrescriptionItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "prescription_id", nullable = false)
+    private Prescription prescription;
+
+    @Column(name = "drug_name", nullable = false, length = 100)
+    private String drugName;
+
+    @Column(nullable = false, length = 50)
+    private String dose;
+
+    @Column(nullable = false, length = 50)
+    private String frequency;
+
+    @Column(name = "duration_days", nullable = false)
+    private Integer durationDays;
+}
@@ -1,12 +1,61 @@
 package com.hms.entity.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
- * Appointment status values.
+ * Appointment status values and the transitions allowed between them.
+ * <pre>
+ * PENDING   -> CONFIRMED | REJECTED | CANCELLED | EXPIRED
+ * CONFIRMED -> COMPLETED | CANCELLED | NO_SHOW
+ * REJECTED, COMPLETED, CANCELLED, EXPIRED, NO_SHOW are final
+ * </pre>
+ * EXPIRED and NO_SHOW are normally set by the background expiry job once an appointment is past due.
  */
 public enum AppointmentStatus {
     PENDING,
     CONFIRMED,
     REJECTED,
     COMPLETED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED,
+    NO_SHOW;
+
+    /**
+     * Statuses whose appointment still occupies the doctor's time slot.
+     */
+    public static final Set<AppointmentStatus> SLOT_HOLDING =
+            Collections.unmodifiableSet(EnumSet.of(PENDING, CONFIRMED, COMPLETED));
+
+    private static final Map<AppointmentStatus, List<AppointmentStatus>> SOURCES =
+            new EnumMap<>(AppointmentStatus.class);
+
+    static {
+        SOURCES.put(PENDING, List.of());
+        SOURCES.put(CONFIRMED, List.of(PENDING));
+        SOURCES.put(REJECTED, List.of(PENDING));
+        SOURCES.put(COMPLETED, List.of(CONFIRMED));
+        SOURCES.put(CANCELLED, List.of(PENDING, CONFIRMED));
+        SOURCES.put(EXPIRED, List.of(PENDING));
+        SOURCES.put(NO_SHOW, List.of(CONFIRMED));
+    }
+
+    public boolean holdsSlot() {
+        return SLOT_HOLDING.contains(this);
+    }
+
+    /**
+     * Statuses an appointment may move to this status from.
+     */
+    public List<AppointmentStatus> sources() {
+        return SOURCES.get(this);
+    }
+
+    public boolean canTransitionTo(AppointmentStatus next) {
+        return next.sources().contains(this);
+    }
 }
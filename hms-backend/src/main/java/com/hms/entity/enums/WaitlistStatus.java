@@ -0,0 +1,13 @@
+package com.hms.entity.enums;
+
+/**
+ * Waitlist entry status values.
+ * WAITING entries are queued for freed slots; OFFERED entries currently hold a slot for the patient to book.
+ */
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,30 @@
+package com.hms.event;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an appointment is booked or its lifecycle changes.
+ * previousStatus is only set for STATUS_CHANGED; status is the appointment's status after the change.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentEvent {
+
+    public enum Type {
+        BOOKED,
+        STATUS_CHANGED,
+        PRESCRIPTION_ISSUED,
+        PAYMENT_COMPLETED
+    }
+
+    private final Type type;
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDateTime appointmentDateTime;
+    private final AppointmentStatus previousStatus;
+    private final AppointmentStatus status;
+}
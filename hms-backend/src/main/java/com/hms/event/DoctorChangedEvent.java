@@ -0,0 +1,12 @@
+package com.hms.event;
+
+import lombok.*;
+
+/**
+ * Published when a doctor profile (or the doctor's user record) is created or changed.
+ */
+@Getter
+@AllArgsConstructor
+public class DoctorChangedEvent {
+    private final Long doctorId;
+}
@@ -0,0 +1,12 @@
+package com.hms.event;
+
+import lombok.*;
+
+/**
+ * Published when a patient profile (or the patient's user record) is changed.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientChangedEvent {
+    private final Long patientId;
+}
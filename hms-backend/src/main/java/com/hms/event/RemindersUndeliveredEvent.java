@@ -0,0 +1,16 @@
+package com.hms.event;
+
+import com.hms.dto.Reminder;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Published when reminders could not be handed to the notifier, either because the dispatch queue was full
+ * or because every delivery attempt failed.
+ */
+@Getter
+@AllArgsConstructor
+public class RemindersUndeliveredEvent {
+    private final List<Reminder> reminders;
+}
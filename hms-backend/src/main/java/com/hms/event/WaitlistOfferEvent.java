@@ -0,0 +1,13 @@
+package com.hms.event;
+
+import com.hms.dto.WaitlistResponse;
+import lombok.*;
+
+/**
+ * Published when a freed slot is offered to a waiting patient; the entry carries the hold to book it with.
+ */
+@Getter
+@AllArgsConstructor
+public class WaitlistOfferEvent {
+    private final WaitlistResponse offer;
+}
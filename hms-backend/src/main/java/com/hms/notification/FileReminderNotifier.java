@@ -0,0 +1,36 @@
+package com.hms.notification;
+
+import com.hms.dto.Reminder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in notifier that appends one line per reminder to an outbox file.
+ * Replace it by declaring another {@link ReminderNotifier} bean marked @Primary.
+ */
+@Component
+public class FileReminderNotifier implements ReminderNotifier {
+
+    @Value("${app.reminders.outbox-file:reminders-outbox.log}")
+    private String outboxFile;
+
+    @Override
+    public synchronized void send(List<Reminder> reminders) throws IOException {
+        String lines = reminders.stream()
+                .map(reminder -> String.format("%s reminder appointment=%d patient=%s <%s> doctor=%s at=%s%n",
+                        LocalDateTime.now(), reminder.getAppointmentId(), reminder.getPatientName(),
+                        reminder.getPatientEmail(), reminder.getDoctorName(), reminder.getAppointmentDateTime()))
+                .collect(Collectors.joining());
+        Files.writeString(Path.of(outboxFile), lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
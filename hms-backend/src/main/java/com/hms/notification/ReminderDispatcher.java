@@ -0,0 +1,109 @@
+package com.hms.notification;
+
+import com.hms.dto.Reminder;
+import com.hms.event.RemindersUndeliveredEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder Dispatcher - hands due reminders to the notifier in batches from a background thread.
+ * A failed batch is retried with exponential backoff up to a maximum number of attempts. Reminders that
+ * cannot be delivered, or do not fit in the queue, are announced in a {@link RemindersUndeliveredEvent}.
+ */
+@Component
+public class ReminderDispatcher {
+
+    @Autowired
+    private ReminderNotifier notifier;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.reminders.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.reminders.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${app.reminders.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.reminders.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+
+    private BlockingQueue<Reminder> queue;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        worker = new Thread(this::run, "reminder-dispatch");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    /**
+     * Queue reminders for delivery; reminders that do not fit in the queue are reported as undelivered.
+     */
+    public void dispatch(Collection<Reminder> reminders) {
+        List<Reminder> rejected = new ArrayList<>();
+        for (Reminder reminder : reminders) {
+            if (!queue.offer(reminder)) {
+                rejected.add(reminder);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            eventPublisher.publishEvent(new RemindersUndeliveredEvent(rejected));
+        }
+    }
+
+    private void run() {
+        List<Reminder> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    deliver(batch);
+                } catch (RuntimeException e) {
+                    // A failing undelivered-reminder listener must not stop the worker
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(List<Reminder> batch) throws InterruptedException {
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                notifier.send(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    eventPublisher.publishEvent(new RemindersUndeliveredEvent(List.copyOf(batch)));
+                    return;
+                }
+                TimeUnit.MILLISECONDS.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hms.notification;
+
+import com.hms.dto.Reminder;
+
+import java.util.List;
+
+/**
+ * Delivers appointment reminders, e.g. by e-mail or SMS.
+ * Implementations receive reminders in batches and signal a failed batch by throwing; it is then retried.
+ */
+public interface ReminderNotifier {
+
+    void send(List<Reminder> reminders) throws Exception;
+}
@@ -1,18 +1,178 @@
 package com.hms.repository;
 
+import com.hms.dto.AppointmentCount;
+import com.hms.dto.AppointmentResponse;
+import com.hms.dto.BookedSlot;
+import com.hms.dto.Reminder;
+import com.hms.dto.StatusCount;
 import com.hms.entity.Appointment;
 import com.hms.entity.enums.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    /**
+     * Selects only the columns AppointmentResponse needs; prescription/payment flags are filled in separately.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.hms.dto.AppointmentResponse(" +
+            "a.id, p.id, pu.name, d.id, du.name, d.specialization, a.appointmentDateTime, " +
+            "a.status, a.reason, a.notes, d.consultationFee, a.createdAt, false, false) " +
+            "FROM Appointment a JOIN a.patient p JOIN p.user pu JOIN a.doctor d JOIN d.user du ";
+
+    /**
+     * Selects what a reminder needs for appointments in the given statuses.
+     */
+    String REMINDER_PROJECTION = "SELECT new com.hms.dto.Reminder(" +
+            "a.id, p.id, pu.name, pu.email, d.id, du.name, a.appointmentDateTime) " +
+            "FROM Appointment a JOIN a.patient p JOIN p.user pu JOIN a.doctor d JOIN d.user du " +
+            "WHERE a.status IN :statuses ";
+
+    @EntityGraph("Appointment.detail")
+    Optional<Appointment> findDetailById(Long id);
+
     List<Appointment> findByPatientIdOrderByAppointmentDateTimeDesc(Long patientId);
     List<Appointment> findByDoctorIdOrderByAppointmentDateTimeDesc(Long doctorId);
     List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    /**
+     * Whether an appointment still holding its slot starts strictly between from and to.
+     * Only slot-holding appointments have an active slot.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.doctor.id = :doctorId " +
+           "AND a.activeSlot > :from AND a.activeSlot < :to")
+    boolean existsActiveSlotBetween(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
     List<Appointment> findByDoctorIdAndAppointmentDateTimeBetween(
             Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new com.hms.dto.BookedSlot(a.id, d.id, a.appointmentDateTime, d.slotMinutes) " +
+            "FROM Appointment a JOIN a.doctor d WHERE a.appointmentDateTime >= :from AND a.status IN :statuses")
+    List<BookedSlot> findBookedSlotsFrom(@Param("from") LocalDateTime from,
+                                         @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query(REMINDER_PROJECTION + "AND a.reminderSentAt IS NULL " +
+            "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+    List<Reminder> findRemindersBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Query(REMINDER_PROJECTION + "AND a.id IN :ids")
+    List<Reminder> findRemindersByIdIn(@Param("ids") Collection<Long> ids,
+                                       @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    // Dashboard statistics, grouped by doctor, status and calendar month of the appointment
+    @Query("SELECT new com.hms.dto.AppointmentCount(d.id, a.status, " +
+            "YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime), COUNT(a)) " +
+            "FROM Appointment a JOIN a.doctor d " +
+            "GROUP BY d.id, a.status, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime)")
+    List<AppointmentCount> countByDoctorStatusAndMonth();
+
+    @Query("SELECT new com.hms.dto.AppointmentCount(d.id, a.status, " +
+            "YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime), COUNT(a)) " +
+            "FROM Appointment a JOIN a.doctor d WHERE d.id = :doctorId " +
+            "GROUP BY d.id, a.status, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime)")
+    List<AppointmentCount> countByStatusAndMonth(@Param("doctorId") Long doctorId);
+
+    // Read-only projections
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :id")
+    Optional<AppointmentResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.id IN :ids")
+    List<AppointmentResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentResponse> findResponsesByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId " +
+            "AND a.appointmentDateTime BETWEEN :start AND :end")
+    List<AppointmentResponse> findResponsesByDoctorIdBetween(@Param("doctorId") Long doctorId,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("end") LocalDateTime end);
+
+    // Patient dashboard
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId AND a.status IN :statuses " +
+            "AND a.appointmentDateTime >= :from ORDER BY a.appointmentDateTime ASC, a.id ASC")
+    List<AppointmentResponse> findPatientUpcoming(@Param("patientId") Long patientId,
+                                                  @Param("statuses") Collection<AppointmentStatus> statuses,
+                                                  @Param("from") LocalDateTime from, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId AND a.status IN :statuses " +
+            "AND NOT EXISTS (SELECT pay.id FROM Payment pay WHERE pay.appointment = a) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponse> findPatientUnpaid(@Param("patientId") Long patientId,
+                                                @Param("statuses") Collection<AppointmentStatus> statuses,
+                                                Pageable pageable);
+
+    @Query("SELECT new com.hms.dto.StatusCount(a.status, COUNT(a)) FROM Appointment a " +
+            "WHERE a.patient.id = :patientId GROUP BY a.status")
+    List<StatusCount> countByPatientIdGroupByStatus(@Param("patientId") Long patientId);
+
+    // Keyset pagination on (appointment_date_time, id), newest first
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponse> findPatientPage(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponse> findDoctorPage(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId AND " +
+            "(a.appointmentDateTime < :dateTime OR (a.appointmentDateTime = :dateTime AND a.id < :id)) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponse> findPatientPageBefore(@Param("patientId") Long patientId,
+                                                    @Param("dateTime") LocalDateTime dateTime,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId AND " +
+            "(a.appointmentDateTime < :dateTime OR (a.appointmentDateTime = :dateTime AND a.id < :id)) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentResponse> findDoctorPageBefore(@Param("doctorId") Long doctorId,
+                                                   @Param("dateTime") LocalDateTime dateTime,
+                                                   @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Move one of the doctor's appointments from the expected status to a new one in a single statement.
+     * The slot stays claimed only if the new status still holds it. Returns the number of rows changed.
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, " +
+           "a.activeSlot = CASE WHEN :keepSlot = true THEN a.activeSlot ELSE NULL END " +
+           "WHERE a.id = :id AND a.doctor.id = :doctorId AND a.status = :expected")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("doctorId") Long doctorId,
+                         @Param("expected") AppointmentStatus expected,
+                         @Param("status") AppointmentStatus status,
+                         @Param("keepSlot") boolean keepSlot);
+
+    /**
+     * Mark an upcoming appointment's reminder as sent unless another node already has.
+     * Returns 1 if this caller claimed it and should send it, 0 otherwise.
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.reminderSentAt = :now " +
+           "WHERE a.id = :id AND a.reminderSentAt IS NULL AND a.status IN :statuses AND a.appointmentDateTime > :now")
+    int claimReminder(@Param("id") Long id, @Param("now") LocalDateTime now,
+                      @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    /**
+     * Hand back claims on reminders that could not be delivered, so they can be sent again.
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.reminderSentAt = NULL WHERE a.id IN :ids")
+    int releaseReminders(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,117 @@
+package com.hms.repository;
+
+import com.hms.entity.enums.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appointment Status Batch Repository - applies many conditional status updates as one JDBC batch.
+ * Runs inside the caller's JPA transaction.
+ */
+@Repository
+public class AppointmentStatusBatchRepository {
+
+    private static final String TRANSITION_SQL =
+            "UPDATE appointments SET status = ?, " +
+            "active_slot = CASE WHEN ? THEN active_slot ELSE NULL END " +
+            "WHERE id = ? AND doctor_id = ? AND status = ?";
+
+    private static final String FIND_STALE_SQL =
+            "SELECT a.id, a.doctor_id, a.patient_id, a.appointment_date_time FROM appointments a " +
+            "WHERE a.status = ? AND a.id > ? AND a.appointment_date_time < ? ";
+
+    private static final String WITHOUT_ACTIVITY_SQL =
+            "AND NOT EXISTS (SELECT 1 FROM prescriptions pr WHERE pr.appointment_id = a.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM payments pa WHERE pa.appointment_id = a.id) ";
+
+    private static final String EXPIRE_SQL =
+            "UPDATE appointments a SET a.status = ?, a.active_slot = NULL WHERE a.id = ? AND a.status = ? ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Apply the transitions in order; returns the number of rows each one changed (0 or 1).
+     */
+    public int[] transitionAll(Long doctorId, List<Transition> transitions) {
+        return jdbcTemplate.batchUpdate(TRANSITION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Transition transition = transitions.get(i);
+                ps.setString(1, transition.getStatus().name());
+                ps.setBoolean(2, transition.getStatus().holdsSlot());
+                ps.setLong(3, transition.getAppointmentId());
+                ps.setLong(4, doctorId);
+                ps.setString(5, transition.getExpected().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return transitions.size();
+            }
+        });
+    }
+
+    /**
+     * Next chunk of appointments in the given status that were due before the cutoff, in id order after afterId.
+     * With withoutActivity only appointments that have neither a prescription nor a payment are returned.
+     */
+    public List<StaleAppointment> findStale(AppointmentStatus status, LocalDateTime dueBefore,
+                                            boolean withoutActivity, long afterId, int limit) {
+        String sql = FIND_STALE_SQL + (withoutActivity ? WITHOUT_ACTIVITY_SQL : "") + "ORDER BY a.id LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new StaleAppointment(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getTimestamp(4).toLocalDateTime()),
+                status.name(), afterId, Timestamp.valueOf(dueBefore), limit);
+    }
+
+    /**
+     * Move each appointment from the expected status to a final status that frees its slot;
+     * returns the number of rows each update changed (0 if the appointment moved on meanwhile).
+     * With withoutActivity the update re-checks that no prescription or payment was added since findStale.
+     */
+    public int[] expireAll(List<StaleAppointment> appointments, AppointmentStatus expected, AppointmentStatus status,
+                           boolean withoutActivity) {
+        String sql = EXPIRE_SQL + (withoutActivity ? WITHOUT_ACTIVITY_SQL : "");
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, status.name());
+                ps.setLong(2, appointments.get(i).getId());
+                ps.setString(3, expected.name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return appointments.size();
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StaleAppointment {
+        private final Long id;
+        private final Long doctorId;
+        private final Long patientId;
+        private final LocalDateTime appointmentDateTime;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Transition {
+        private final Long appointmentId;
+        private final AppointmentStatus expected;
+        private final AppointmentStatus status;
+    }
+}
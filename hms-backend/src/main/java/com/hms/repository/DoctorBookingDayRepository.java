@@ -0,0 +1,62 @@
+package com.hms.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Doctor Booking Day Repository - row locks that serialize bookings of one doctor on one day across nodes.
+ * The caller's JPA transaction holds the lock until it ends.
+ */
+@Repository
+public class DoctorBookingDayRepository {
+
+    private static final String EXISTS_SQL =
+            "SELECT COUNT(*) FROM doctor_booking_days WHERE doctor_id = ? AND booking_date = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO doctor_booking_days (doctor_id, booking_date) VALUES (?, ?)";
+
+    private static final String LOCK_SQL =
+            "SELECT id FROM doctor_booking_days WHERE doctor_id = ? AND booking_date = ? FOR UPDATE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate separateTransaction;
+
+    @PostConstruct
+    public void init() {
+        separateTransaction = new TransactionTemplate(transactionManager);
+        separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Lock the doctor's day until the end of the current transaction.
+     * A missing row is created and committed on its own first: locking a row that does not exist yet
+     * would take a gap lock (MySQL) that blocks that very insert.
+     */
+    public void lock(Long doctorId, LocalDate day) {
+        Date date = Date.valueOf(day);
+        if (jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, doctorId, date) == 0) {
+            separateTransaction.executeWithoutResult(status -> {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, doctorId, date);
+                } catch (DuplicateKeyException e) {
+                    // Created concurrently by another booking
+                }
+            });
+        }
+        jdbcTemplate.queryForList(LOCK_SQL, Long.class, doctorId, date);
+    }
+}
@@ -1,7 +1,11 @@
 package com.hms.repository;
 
+import com.hms.dto.DoctorResponse;
 import com.hms.entity.Doctor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +13,30 @@ import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    /**
+     * Selects only the columns DoctorResponse needs.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.hms.dto.DoctorResponse(" +
+            "d.id, u.id, u.name, u.email, u.phone, d.specialization, d.qualification, " +
+            "d.experienceYears, d.consultationFee, d.available, d.bio) " +
+            "FROM Doctor d JOIN d.user u ";
+
     Optional<Doctor> findByUserId(Long userId);
+
+    @EntityGraph("Doctor.withUser")
+    Optional<Doctor> findWithUserById(Long id);
+
+    @Query("SELECT d.slotMinutes FROM Doctor d WHERE d.id = :id")
+    Optional<Integer> findSlotMinutesById(@Param("id") Long id);
     List<Doctor> findBySpecializationIgnoreCase(String specialization);
     List<Doctor> findByAvailableTrue();
     List<Doctor> findBySpecializationIgnoreCaseAndAvailableTrue(String specialization);
+
+    // Read-only projections
+    @Query(RESPONSE_PROJECTION)
+    List<DoctorResponse> findAllResponses();
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :id")
+    Optional<DoctorResponse> findResponseById(@Param("id") Long id);
 }
@@ -0,0 +1,24 @@
+package com.hms.repository;
+
+import com.hms.dto.WorkingHoursResponse;
+import com.hms.entity.DoctorWorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DoctorWorkingHoursRepository extends JpaRepository<DoctorWorkingHours, Long> {
+
+    @Query("SELECT new com.hms.dto.WorkingHoursResponse(w.dayOfWeek, w.startTime, w.endTime) " +
+            "FROM DoctorWorkingHours w WHERE w.doctor.id = :doctorId " +
+            "ORDER BY w.dayOfWeek, w.startTime")
+    List<WorkingHoursResponse> findResponsesByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Modifying
+    @Query("DELETE FROM DoctorWorkingHours w WHERE w.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
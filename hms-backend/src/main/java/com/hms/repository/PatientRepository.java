@@ -1,6 +1,7 @@
 package com.hms.repository;
 
 import com.hms.entity.Patient;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +10,7 @@ import java.util.Optional;
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByUserId(Long userId);
+
+    @EntityGraph("Patient.withUser")
+    Optional<Patient> findWithUserById(Long id);
 }
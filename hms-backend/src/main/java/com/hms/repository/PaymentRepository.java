@@ -1,13 +1,66 @@
 package com.hms.repository;
 
+import com.hms.dto.PaymentResponse;
+import com.hms.dto.RevenueTotal;
 import com.hms.entity.Payment;
+import com.hms.entity.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    /**
+     * Selects only the columns PaymentResponse needs.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.hms.dto.PaymentResponse(" +
+            "p.id, a.id, du.name, pu.name, p.amount, p.paymentMethod, p.status, p.transactionId, p.paidAt) " +
+            "FROM Payment p JOIN p.appointment a JOIN a.doctor d JOIN d.user du " +
+            "JOIN a.patient pt JOIN pt.user pu ";
+
+    @EntityGraph("Payment.detail")
     Optional<Payment> findByAppointmentId(Long appointmentId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :appointmentId")
+    Optional<PaymentResponse> findResponseByAppointmentId(@Param("appointmentId") Long appointmentId);
     boolean existsByAppointmentId(Long appointmentId);
+
+    // Keyset pagination on (paid_at, id), newest first
+    @Query(RESPONSE_PROJECTION + "WHERE pt.id = :patientId ORDER BY p.paidAt DESC, p.id DESC")
+    List<PaymentResponse> findPatientPage(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE pt.id = :patientId AND " +
+            "(p.paidAt < :paidAt OR (p.paidAt = :paidAt AND p.id < :id)) " +
+            "ORDER BY p.paidAt DESC, p.id DESC")
+    List<PaymentResponse> findPatientPageBefore(@Param("patientId") Long patientId,
+                                                @Param("paidAt") LocalDateTime paidAt,
+                                                @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p.amount FROM Payment p WHERE p.appointment.id = :appointmentId AND p.status = :status")
+    Optional<Double> findAmountByAppointmentIdAndStatus(@Param("appointmentId") Long appointmentId,
+                                                        @Param("status") PaymentStatus status);
+
+    // Dashboard revenue, grouped by doctor and calendar month of the appointment
+    @Query("SELECT new com.hms.dto.RevenueTotal(d.id, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime), " +
+            "SUM(p.amount)) FROM Payment p JOIN p.appointment a JOIN a.doctor d WHERE p.status = :status " +
+            "GROUP BY d.id, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime)")
+    List<RevenueTotal> sumByDoctorAndMonth(@Param("status") PaymentStatus status);
+
+    @Query("SELECT new com.hms.dto.RevenueTotal(d.id, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime), " +
+            "SUM(p.amount)) FROM Payment p JOIN p.appointment a JOIN a.doctor d " +
+            "WHERE d.id = :doctorId AND p.status = :status " +
+            "GROUP BY d.id, YEAR(a.appointmentDateTime), MONTH(a.appointmentDateTime)")
+    List<RevenueTotal> sumByMonth(@Param("doctorId") Long doctorId, @Param("status") PaymentStatus status);
+
+    @Query("SELECT p.appointment.id FROM Payment p WHERE p.appointment.id IN :appointmentIds")
+    List<Long> findAppointmentIdsIn(@Param("appointmentIds") Collection<Long> appointmentIds);
 }
@@ -0,0 +1,32 @@
+package com.hms.repository;
+
+import com.hms.dto.ActiveMedication;
+import com.hms.dto.PrescriptionItemResponse;
+import com.hms.entity.PrescriptionItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PrescriptionItemRepository extends JpaRepository<PrescriptionItem, Long> {
+
+    @Query("SELECT new com.hms.dto.PrescriptionItemResponse(i.prescription.id, i.drugName, i.dose, " +
+            "i.frequency, i.durationDays) FROM PrescriptionItem i " +
+            "WHERE i.prescription.id IN :prescriptionIds ORDER BY i.id")
+    List<PrescriptionItemResponse> findResponsesByPrescriptionIdIn(
+            @Param("prescriptionIds") Collection<Long> prescriptionIds);
+
+    /**
+     * Drugs of a patient's prescriptions issued since the given time; callers filter by duration.
+     */
+    @Query("SELECT new com.hms.dto.ActiveMedication(i.drugName, pr.issuedAt, i.durationDays) " +
+            "FROM PrescriptionItem i JOIN i.prescription pr " +
+            "WHERE pr.patient.id = :patientId AND pr.issuedAt >= :since")
+    List<ActiveMedication> findIssuedToPatientSince(@Param("patientId") Long patientId,
+                                                    @Param("since") LocalDateTime since);
+}
@@ -1,16 +1,75 @@
 package com.hms.repository;
 
+import com.hms.dto.PrescriptionResponse;
 import com.hms.entity.Prescription;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
+
+    /**
+     * Selects only the columns PrescriptionResponse needs.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.hms.dto.PrescriptionResponse(" +
+            "pr.id, a.id, du.name, d.specialization, pu.name, pr.diagnosis, pr.medications, " +
+            "pr.notes, pr.issuedAt, a.appointmentDateTime) " +
+            "FROM Prescription pr JOIN pr.appointment a JOIN pr.doctor d JOIN d.user du " +
+            "JOIN pr.patient p JOIN p.user pu ";
+
+    @EntityGraph("Prescription.detail")
     Optional<Prescription> findByAppointmentId(Long appointmentId);
     List<Prescription> findByPatientIdOrderByIssuedAtDesc(Long patientId);
     List<Prescription> findByDoctorIdOrderByIssuedAtDesc(Long doctorId);
     boolean existsByAppointmentId(Long appointmentId);
+    long countByPatientId(Long patientId);
+
+    // Read-only projections
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :appointmentId")
+    Optional<PrescriptionResponse> findResponseByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE pr.id = :id AND p.id = :patientId")
+    Optional<PrescriptionResponse> findResponseByIdAndPatientId(@Param("id") Long id, @Param("patientId") Long patientId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE pr.id = :id AND d.id = :doctorId")
+    Optional<PrescriptionResponse> findResponseByIdAndDoctorId(@Param("id") Long id, @Param("doctorId") Long doctorId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId ORDER BY pr.issuedAt DESC")
+    List<PrescriptionResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId ORDER BY pr.issuedAt DESC")
+    List<PrescriptionResponse> findResponsesByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Keyset pagination on (issued_at, id), newest first
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId ORDER BY pr.issuedAt DESC, pr.id DESC")
+    List<PrescriptionResponse> findPatientPage(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId ORDER BY pr.issuedAt DESC, pr.id DESC")
+    List<PrescriptionResponse> findDoctorPage(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId AND " +
+            "(pr.issuedAt < :issuedAt OR (pr.issuedAt = :issuedAt AND pr.id < :id)) " +
+            "ORDER BY pr.issuedAt DESC, pr.id DESC")
+    List<PrescriptionResponse> findPatientPageBefore(@Param("patientId") Long patientId,
+                                                     @Param("issuedAt") LocalDateTime issuedAt,
+                                                     @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId AND " +
+            "(pr.issuedAt < :issuedAt OR (pr.issuedAt = :issuedAt AND pr.id < :id)) " +
+            "ORDER BY pr.issuedAt DESC, pr.id DESC")
+    List<PrescriptionResponse> findDoctorPageBefore(@Param("doctorId") Long doctorId,
+                                                    @Param("issuedAt") LocalDateTime issuedAt,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p.appointment.id FROM Prescription p WHERE p.appointment.id IN :appointmentIds")
+    List<Long> findAppointmentIdsIn(@Param("appointmentIds") Collection<Long> appointmentIds);
 }
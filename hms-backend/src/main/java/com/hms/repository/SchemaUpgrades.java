@@ -0,0 +1,97 @@
+package com.hms.repository;
+
+import com.hms.entity.enums.AppointmentStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Schema Upgrades - idempotent fixes to existing databases that ddl-auto=update does not make.
+ * Runs once on startup, after Hibernate has updated the schema and before the application serves requests.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class SchemaUpgrades {
+
+    private static final Pattern ENUM_VALUE = Pattern.compile("'([^']*)'");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void upgrade() {
+        if (isMySql()) {
+            addEnumValues("appointments", "status", AppointmentStatus.class);
+        }
+        backfillActiveSlots();
+    }
+
+    /**
+     * Hibernate (and older copies of schema.sql) create enum fields as native MySQL ENUM columns, and
+     * ddl-auto=update never widens them, so a status added later (e.g. EXPIRED, NO_SHOW) cannot be stored.
+     * Appends the missing values; existing values keep their positions, so MySQL changes only metadata.
+     */
+    private void addEnumValues(String table, String column, Class<? extends Enum<?>> type) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT COLUMN_TYPE, IS_NULLABLE, COLUMN_DEFAULT FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", table, column);
+        if (rows.isEmpty() || !rows.get(0).get("COLUMN_TYPE").toString().toLowerCase().startsWith("enum(")) {
+            return;
+        }
+        List<String> values = new ArrayList<>();
+        Matcher matcher = ENUM_VALUE.matcher(rows.get(0).get("COLUMN_TYPE").toString());
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        int known = values.size();
+        for (Enum<?> constant : type.getEnumConstants()) {
+            if (!values.contains(constant.name())) {
+                values.add(constant.name());
+            }
+        }
+        if (values.size() == known) {
+            return;
+        }
+        Object defaultValue = rows.get(0).get("COLUMN_DEFAULT");
+        jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + column + " ENUM('" + String.join("', '", values) + "')"
+                + ("NO".equals(rows.get(0).get("IS_NULLABLE")) ? " NOT NULL" : " NULL")
+                + (defaultValue != null ? " DEFAULT '" + defaultValue + "'" : ""));
+    }
+
+    private boolean isMySql() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    /**
+     * Appointments booked before active_slot existed still hold their slot but have it NULL, so the unique
+     * (doctor_id, active_slot) constraint does not cover them. Rows are filled one at a time in id order;
+     * of an old double booking only the first row gets the slot, the others are left as they are.
+     */
+    private void backfillActiveSlots() {
+        List<String> statuses = AppointmentStatus.SLOT_HOLDING.stream().map(Enum::name).toList();
+        String placeholders = String.join(", ", Collections.nCopies(statuses.size(), "?"));
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM appointments WHERE active_slot IS NULL AND status IN (" + placeholders + ") ORDER BY id",
+                Long.class, statuses.toArray());
+        for (Long id : ids) {
+            try {
+                jdbcTemplate.update("UPDATE appointments SET active_slot = appointment_date_time " +
+                        "WHERE id = ? AND active_slot IS NULL", id);
+            } catch (DuplicateKeyException e) {
+                // Another appointment already holds this start; nothing more can be enforced for this row
+            }
+        }
+    }
+}
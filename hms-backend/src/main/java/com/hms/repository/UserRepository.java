@@ -1,7 +1,11 @@
 package com.hms.repository;
 
+import com.hms.dto.ActorInfo;
 import com.hms.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,16 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.hms.dto.ActorInfo(u.id, u.email, u.role, d.id, p.id) FROM User u " +
+            "LEFT JOIN Doctor d ON d.user = u LEFT JOIN Patient p ON p.user = u " +
+            "WHERE u.email = :email")
+    Optional<ActorInfo> findActorByEmail(@Param("email") String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
@@ -0,0 +1,75 @@
+package com.hms.repository;
+
+import com.hms.dto.WaitlistResponse;
+import com.hms.entity.WaitlistEntry;
+import com.hms.entity.enums.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    String RESPONSE_PROJECTION = "SELECT new com.hms.dto.WaitlistResponse(" +
+            "w.id, d.id, du.name, p.id, w.fromDate, w.toDate, w.priority, w.status, " +
+            "w.offeredSlot, w.holdId, w.offerExpiresAt, w.createdAt) " +
+            "FROM WaitlistEntry w JOIN w.doctor d JOIN d.user du JOIN w.patient p ";
+
+    @Query(RESPONSE_PROJECTION + "WHERE w.id = :id")
+    Optional<WaitlistResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.id = :patientId ORDER BY w.createdAt DESC")
+    List<WaitlistResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE d.id = :doctorId AND w.status IN :statuses " +
+            "ORDER BY w.priority DESC, w.createdAt, w.id")
+    List<WaitlistResponse> findResponsesByDoctorIdAndStatusIn(@Param("doctorId") Long doctorId,
+                                                              @Param("statuses") Collection<WaitlistStatus> statuses);
+
+    @Query(RESPONSE_PROJECTION + "WHERE w.status IN :statuses")
+    List<WaitlistResponse> findResponsesByStatusIn(@Param("statuses") Collection<WaitlistStatus> statuses);
+
+    @Query(RESPONSE_PROJECTION + "WHERE w.status = com.hms.entity.enums.WaitlistStatus.OFFERED " +
+            "AND w.offerExpiresAt < :now")
+    List<WaitlistResponse> findLapsedOffers(@Param("now") LocalDateTime now);
+
+    @Query(RESPONSE_PROJECTION + "WHERE w.status = com.hms.entity.enums.WaitlistStatus.OFFERED " +
+            "AND p.id = :patientId AND d.id = :doctorId AND w.offeredSlot = :slot")
+    List<WaitlistResponse> findOffers(@Param("patientId") Long patientId,
+                                      @Param("doctorId") Long doctorId,
+                                      @Param("slot") LocalDateTime slot);
+
+    boolean existsByPatientIdAndDoctorIdAndStatusIn(Long patientId, Long doctorId,
+                                                    Collection<WaitlistStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :status, w.offeredSlot = :slot, w.holdId = :holdId, " +
+            "w.offerExpiresAt = :expiresAt WHERE w.id = :id AND w.status = :expected")
+    int updateOffer(@Param("id") Long id,
+                    @Param("expected") WaitlistStatus expected,
+                    @Param("status") WaitlistStatus status,
+                    @Param("slot") LocalDateTime slot,
+                    @Param("holdId") String holdId,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.priority = :priority " +
+            "WHERE w.id = :id AND w.doctor.id = :doctorId AND w.status IN :statuses")
+    int updatePriority(@Param("id") Long id,
+                       @Param("doctorId") Long doctorId,
+                       @Param("priority") Integer priority,
+                       @Param("statuses") Collection<WaitlistStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.hms.entity.enums.WaitlistStatus.EXPIRED " +
+            "WHERE w.status = com.hms.entity.enums.WaitlistStatus.WAITING AND w.toDate < :today")
+    int expireEnded(@Param("today") LocalDate today);
+}
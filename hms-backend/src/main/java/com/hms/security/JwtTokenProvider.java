@@ -1,11 +1,12 @@
 package com.hms.security;
 
+import com.hms.entity.User;
+import com.hms.entity.enums.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -17,64 +18,91 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_DOCTOR_ID = "did";
+    private static final String CLAIM_PATIENT_ID = "pid";
+    private static final String CLAIM_VERSION = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokens;
+
     /**
-     * Generate JWT token from authentication object.
+     * Decode the secret and build the parser once instead of on every call.
      */
-    public String generateToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return generateToken(userDetails.getUsername());
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
     /**
-     * Generate JWT token from email.
+     * Generate JWT token for a user, embedding the claims needed to rebuild the principal.
+     * The profile id is the doctor id for doctors and the patient id for patients.
      */
-    public String generateToken(String email) {
+    public String generateToken(User user, Long profileId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        return Jwts.builder()
-                .subject(email)
+        JwtBuilder builder = Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKey);
+        if (profileId != null) {
+            builder.claim(user.getRole() == Role.DOCTOR ? CLAIM_DOCTOR_ID : CLAIM_PATIENT_ID, profileId);
+        }
+        return builder.compact();
     }
 
     /**
-     * Extract email (subject) from JWT token.
+     * Build the authenticated principal from verified claims, or null if required claims are missing.
      */
-    public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public UserPrincipal getPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer version = claims.get(CLAIM_VERSION, Integer.class);
+        if (userId == null || role == null || version == null) {
+            return null;
+        }
+        return new UserPrincipal(
+                userId,
+                claims.getSubject(),
+                Role.valueOf(role),
+                claims.get(CLAIM_DOCTOR_ID, Long.class),
+                claims.get(CLAIM_PATIENT_ID, Long.class),
+                version);
     }
 
     /**
-     * Validate JWT token.
+     * Verify the token once and return its claims, or null if it is invalid or expired.
+     * Tokens verified earlier are served from the cache without repeating the HMAC check.
      */
-    public boolean validateToken(String token) {
+    public Claims parseClaims(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -1,5 +1,6 @@
 package com.hms.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,20 +56,31 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of async requests (SSE and NDJSON streams) was authorized on the initial dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         // Public endpoints
+                        .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated()
+                        .requestMatchers(HttpMethod.PUT, "/api/auth/password").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/doctors/**").permitAll()
                         // Patient endpoints
                         .requestMatchers("/api/patients/**").hasRole("PATIENT")
                         .requestMatchers("/api/appointments/patient/**").hasRole("PATIENT")
                         .requestMatchers(HttpMethod.POST, "/api/appointments").hasRole("PATIENT")
+                        .requestMatchers("/api/appointments/holds/**").hasRole("PATIENT")
                         .requestMatchers("/api/payments/**").hasRole("PATIENT")
+                        .requestMatchers("/api/waitlist/doctor/**").hasRole("DOCTOR")
+                        .requestMatchers("/api/waitlist/**").hasRole("PATIENT")
                         .requestMatchers("/api/prescriptions/patient/**").hasRole("PATIENT")
+                        .requestMatchers(HttpMethod.GET, "/api/timeline").hasRole("PATIENT")
                         // Doctor endpoints
                         .requestMatchers("/api/appointments/doctor/**").hasRole("DOCTOR")
                         .requestMatchers(HttpMethod.PUT, "/api/appointments/*/status").hasRole("DOCTOR")
+                        .requestMatchers(HttpMethod.PUT, "/api/appointments/status").hasRole("DOCTOR")
+                        .requestMatchers(HttpMethod.PUT, "/api/doctors/schedule").hasRole("DOCTOR")
                         .requestMatchers(HttpMethod.POST, "/api/prescriptions").hasRole("DOCTOR")
                         .requestMatchers("/api/prescriptions/doctor/**").hasRole("DOCTOR")
+                        .requestMatchers("/api/timeline/patients/**").hasRole("DOCTOR")
                         // All other requests need authentication
                         .anyRequest().authenticated()
                 );
@@ -83,7 +95,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:5173", "http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setAllowedHeaders(Arrays.asList(
+                "Authorization", "Content-Type", "X-Requested-With", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
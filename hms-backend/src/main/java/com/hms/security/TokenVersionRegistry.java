@@ -0,0 +1,90 @@
+package com.hms.security;
+
+import com.hms.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token Version Registry - in-memory view of each user's current token version.
+ * A token is only accepted if it was issued at the user's current version, so bumping the
+ * version (on logout or a password change) revokes every outstanding token for that user.
+ * Versions are read from the database at most once per refresh interval per user, and entries
+ * older than that interval are purged, so the map only holds recently active users.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.jwt.version-refresh-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether the principal's token was issued at the user's current version.
+     */
+    public boolean isCurrent(UserPrincipal principal) {
+        return currentVersion(principal.getId()) == principal.getTokenVersion();
+    }
+
+    /**
+     * Current token version for a user, or -1 if the user no longer exists.
+     */
+    public int currentVersion(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt() > refreshIntervalMs) {
+            int version = userRepository.findTokenVersionById(userId).orElse(-1);
+            cached = remember(userId, new CachedVersion(version, now));
+        }
+        return cached.version();
+    }
+
+    /**
+     * Invalidate all tokens issued to a user and return the new version. The cached version is replaced
+     * once the transaction commits.
+     */
+    @Transactional
+    public int revokeTokens(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        int version = userRepository.findTokenVersionById(userId).orElse(-1);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(userId, new CachedVersion(version, System.currentTimeMillis()));
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Drop versions that would be reloaded on next use anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.version-refresh-ms:60000}")
+    public void purgeStale() {
+        long cutoff = System.currentTimeMillis() - refreshIntervalMs;
+        versions.values().removeIf(cached -> cached.loadedAt() < cutoff);
+    }
+
+    /**
+     * Versions only grow, so a lower one read before a revocation committed never replaces the newer one.
+     * -1 (user deleted) always wins.
+     */
+    private CachedVersion remember(Long userId, CachedVersion loaded) {
+        return versions.merge(userId, loaded, (cached, fresh) ->
+                fresh.version() >= 0 && fresh.version() < cached.version() ? cached : fresh);
+    }
+
+    private record CachedVersion(int version, long loadedAt) {
+    }
+}
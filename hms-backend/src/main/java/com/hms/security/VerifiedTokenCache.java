@@ -0,0 +1,121 @@
+package com.hms.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verified Token Cache - size-bounded, approximately LRU cache of tokens whose signature has already been checked.
+ * <p>
+ * Entries are keyed by the token itself in a concurrent map, so a hit costs one string hash and a lookup and
+ * takes no lock. Each hit stamps its entry with a logical access time; when the cache grows past its bound,
+ * one caller sweeps it and drops expired entries and the least recently used tenth. Entries are never served
+ * once the token expires.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Return the cached claims for a token, or null if absent or expired.
+     */
+    public Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(token, entry);
+            return null;
+        }
+        entry.touch(clock.get());
+        return entry.claims;
+    }
+
+    /**
+     * Remember the claims of a token whose signature has been verified.
+     */
+    public void put(String token, Claims claims) {
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        if (maxEntries <= 0 || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(token, new Entry(claims, expiresAt, clock.incrementAndGet()));
+        if (entries.size() > maxEntries) {
+            sweep();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Drop expired entries and then the least recently used ones until a tenth of the bound is free, so
+     * sweeps stay rare. Callers that find a sweep in progress carry on; the map may briefly overshoot.
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            int excess = entries.size() - (maxEntries - maxEntries / 10);
+            if (excess <= 0) {
+                return;
+            }
+            long[] stamps = entries.values().stream().mapToLong(entry -> entry.lastAccess).toArray();
+            if (excess >= stamps.length) {
+                entries.clear();
+                return;
+            }
+            Arrays.sort(stamps);
+            long cutoff = stamps[excess - 1];
+            entries.values().removeIf(entry -> entry.lastAccess <= cutoff);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Claims claims;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(Claims claims, long expiresAt, long lastAccess) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+
+        /**
+         * Hits only read the clock, which advances on insert, so a hot entry is written at most once
+         * per insert rather than on every request.
+         */
+        private void touch(long now) {
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+    }
+}
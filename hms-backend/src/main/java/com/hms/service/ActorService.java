@@ -0,0 +1,91 @@
+package com.hms.service;
+
+import com.hms.dto.ActorInfo;
+import com.hms.exception.ResourceNotFoundException;
+import com.hms.repository.UserRepository;
+import com.hms.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Actor Service - resolves a caller's email to user id, role and doctor/patient profile id.
+ * Uses the JWT principal when available, otherwise a single join query cached per email.
+ */
+@Service
+public class ActorService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.actor-cache.max-size:10000}")
+    private int maxCacheSize;
+
+    private final Map<String, ActorInfo> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the actor for an email.
+     */
+    public ActorInfo resolve(String email) {
+        ActorInfo fromToken = fromSecurityContext(email);
+        if (fromToken != null) {
+            return fromToken;
+        }
+
+        ActorInfo actor = cache.get(email);
+        if (actor == null) {
+            actor = userRepository.findActorByEmail(email)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            if (cache.size() >= maxCacheSize) {
+                cache.clear();
+            }
+            cache.put(email, actor);
+        }
+        return actor;
+    }
+
+    /**
+     * Resolve the doctor profile id for an email.
+     */
+    public Long getDoctorId(String email) {
+        Long doctorId = resolve(email).getDoctorId();
+        if (doctorId == null) {
+            throw new ResourceNotFoundException("Doctor profile not found");
+        }
+        return doctorId;
+    }
+
+    /**
+     * Resolve the patient profile id for an email.
+     */
+    public Long getPatientId(String email) {
+        Long patientId = resolve(email).getPatientId();
+        if (patientId == null) {
+            throw new ResourceNotFoundException("Patient profile not found");
+        }
+        return patientId;
+    }
+
+    /**
+     * Drop the cached mapping for an email (called on registration and profile changes).
+     */
+    public void evict(String email) {
+        cache.remove(email);
+    }
+
+    private ActorInfo fromSecurityContext(String email) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getEmail().equals(email)
+                && (principal.getDoctorId() != null || principal.getPatientId() != null)) {
+            return new ActorInfo(principal.getId(), principal.getEmail(), principal.getRole(),
+                    principal.getDoctorId(), principal.getPatientId());
+        }
+        return null;
+    }
+}
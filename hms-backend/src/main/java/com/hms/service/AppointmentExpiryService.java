@@ -0,0 +1,139 @@
+package com.hms.service;
+
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.event.AppointmentEvent;
+import com.hms.repository.AppointmentStatusBatchRepository;
+import com.hms.repository.AppointmentStatusBatchRepository.StaleAppointment;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Appointment Expiry Service - closes appointments that are past due.
+ * <p>
+ * PENDING appointments never confirmed before their time become EXPIRED, and CONFIRMED ones that
+ * got neither a prescription nor a payment become NO_SHOW. Candidates are walked in id order with
+ * keyset iteration and updated in small chunks, each in its own short transaction and JDBC batch,
+ * with a pause in between. During clinic hours chunks are smaller so the job never holds locks on
+ * appointments for long while doctors and patients are active.
+ */
+@Service
+public class AppointmentExpiryService {
+
+    @Autowired
+    private AppointmentStatusBatchRepository statusBatchRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.appointments.expiry.pending-grace-minutes:60}")
+    private long pendingGraceMinutes;
+
+    @Value("${app.appointments.expiry.no-show-grace-hours:24}")
+    private long noShowGraceHours;
+
+    @Value("${app.appointments.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.appointments.expiry.clinic-hours-chunk-size:50}")
+    private int clinicHoursChunkSize;
+
+    @Value("${app.appointments.expiry.chunk-pause-ms:250}")
+    private long chunkPauseMillis;
+
+    @Value("${app.appointments.expiry.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.appointments.expiry.clinic-hours-start:08:00}")
+    private LocalTime clinicHoursStart;
+
+    @Value("${app.appointments.expiry.clinic-hours-end:20:00}")
+    private LocalTime clinicHoursEnd;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.appointments.expiry.initial-delay-ms:60000}",
+            fixedDelayString = "${app.appointments.expiry.interval-ms:300000}")
+    public void expireStale() {
+        expireStale(LocalDateTime.now());
+    }
+
+    /**
+     * Run one expiry pass as of the given time; returns the number of appointments closed.
+     */
+    public int expireStale(LocalDateTime now) {
+        int expired = expire(AppointmentStatus.PENDING, AppointmentStatus.EXPIRED,
+                now.minusMinutes(pendingGraceMinutes), false);
+        int noShows = expire(AppointmentStatus.CONFIRMED, AppointmentStatus.NO_SHOW,
+                now.minusHours(noShowGraceHours), true);
+        return expired + noShows;
+    }
+
+    private int expire(AppointmentStatus from, AppointmentStatus to, LocalDateTime dueBefore, boolean withoutActivity) {
+        long afterId = 0L;
+        int closed = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int limit = isClinicHours(LocalTime.now()) ? clinicHoursChunkSize : chunkSize;
+            List<StaleAppointment> stale = statusBatchRepository.findStale(from, dueBefore, withoutActivity, afterId, limit);
+            if (stale.isEmpty()) {
+                break;
+            }
+            afterId = stale.get(stale.size() - 1).getId();
+            Integer count = transactionTemplate.execute(status -> closeChunk(stale, from, to, withoutActivity));
+            closed += count != null ? count : 0;
+            if (stale.size() < limit || !pause()) {
+                break;
+            }
+        }
+        return closed;
+    }
+
+    private int closeChunk(List<StaleAppointment> stale, AppointmentStatus from, AppointmentStatus to,
+                           boolean withoutActivity) {
+        int[] counts = statusBatchRepository.expireAll(stale, from, to, withoutActivity);
+        int closed = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            StaleAppointment appointment = stale.get(i);
+            eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.STATUS_CHANGED,
+                    appointment.getId(), appointment.getDoctorId(), appointment.getPatientId(),
+                    appointment.getAppointmentDateTime(), from, to));
+            closed++;
+        }
+        return closed;
+    }
+
+    private boolean isClinicHours(LocalTime time) {
+        return !time.isBefore(clinicHoursStart) && time.isBefore(clinicHoursEnd);
+    }
+
+    private boolean pause() {
+        if (chunkPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hms.service;
+
+import com.hms.dto.AppointmentResponse;
+import com.hms.repository.PaymentRepository;
+import com.hms.repository.PrescriptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Appointment Flags - fills the hasPrescription/hasPayment flags of appointment rows with one
+ * query per flag for the whole list, instead of one per row.
+ */
+@Component
+class AppointmentFlags {
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    /**
+     * Set both flags on every row and return the same list.
+     */
+    List<AppointmentResponse> apply(List<AppointmentResponse> responses) {
+        if (responses.isEmpty()) {
+            return responses;
+        }
+        List<Long> ids = responses.stream().map(AppointmentResponse::getId).toList();
+        Set<Long> withPrescription = new HashSet<>(prescriptionRepository.findAppointmentIdsIn(ids));
+        Set<Long> withPayment = new HashSet<>(paymentRepository.findAppointmentIdsIn(ids));
+        for (AppointmentResponse response : responses) {
+            response.setHasPrescription(withPrescription.contains(response.getId()));
+            response.setHasPayment(withPayment.contains(response.getId()));
+        }
+        return responses;
+    }
+}
@@ -2,18 +2,35 @@ package com.hms.service;
 
 import com.hms.dto.AppointmentRequest;
 import com.hms.dto.AppointmentResponse;
+import com.hms.dto.BulkStatusUpdateRequest;
+import com.hms.dto.CursorPage;
+import com.hms.dto.DoctorStatsResponse;
+import com.hms.dto.PageCursor;
+import com.hms.dto.SlotHoldResponse;
+import com.hms.dto.StatusUpdateItem;
+import com.hms.dto.StatusUpdateResult;
 import com.hms.entity.*;
 import com.hms.entity.enums.AppointmentStatus;
+import com.hms.event.AppointmentEvent;
 import com.hms.exception.BadRequestException;
 import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.ZoneId;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -27,42 +44,132 @@ public class AppointmentService {
     @Autowired
     private DoctorRepository doctorRepository;
     @Autowired
-    private UserRepository userRepository;
+    private DoctorBookingDayRepository bookingDayRepository;
+    @Autowired
+    private ActorService actorService;
     @Autowired
     private PatientService patientService;
     @Autowired
+    private AppointmentStatusBatchRepository statusBatchRepository;
+    @Autowired
     private PrescriptionRepository prescriptionRepository;
     @Autowired
     private PaymentRepository paymentRepository;
+    @Autowired
+    private AppointmentFlags appointmentFlags;
+    @Autowired
+    private DoctorSlotIndex slotIndex;
+    @Autowired
+    private DoctorScheduleService scheduleService;
+    @Autowired
+    private DoctorDayView dayView;
+    @Autowired
+    private DoctorStatsView statsView;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.appointments.hold-ttl-ms:120000}")
+    private long holdTtlMillis;
+
+    @Value("${app.appointments.max-holds-per-patient:3}")
+    private int maxHoldsPerPatient;
+
+    @Value("${app.appointments.max-holds-per-doctor:1}")
+    private int maxHoldsPerDoctor;
+
+    /**
+     * Hold a slot for a short time so the patient can confirm it without racing other bookings.
+     * A patient may hold only a few slots at once, and only one per doctor by default (409 beyond that).
+     */
+    public SlotHoldResponse holdSlot(String patientEmail, AppointmentRequest request) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        Doctor doctor = getBookableDoctor(request);
+        LocalDateTime slot = request.getAppointmentDateTime();
+
+        DoctorSlotIndex.Claim hold = slotIndex.hold(doctor.getId(), slot,
+                scheduleService.getSlotMinutes(doctor.getId()), patientId, holdTtlMillis,
+                maxHoldsPerPatient, maxHoldsPerDoctor);
+        if (hold == null) {
+            throw new BadRequestException("The selected time slot is already booked");
+        }
+        return SlotHoldResponse.builder()
+                .holdId(hold.getHoldId())
+                .doctorId(doctor.getId())
+                .appointmentDateTime(slot)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAt()), ZoneId.systemDefault()))
+                .build();
+    }
+
+    /**
+     * Release a hold the patient no longer needs.
+     */
+    public void releaseHold(String patientEmail, String holdId) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        if (!slotIndex.releaseHold(holdId, patientId)) {
+            throw new ResourceNotFoundException("Hold not found with id: " + holdId);
+        }
+    }
 
     /**
-     * Book a new appointment (patient action).
+     * Book a new appointment (patient action). With a holdId the held slot is confirmed,
+     * otherwise the slot is claimed directly.
      */
     @Transactional
     public AppointmentResponse bookAppointment(String patientEmail, AppointmentRequest request) {
         Patient patient = patientService.getPatientEntityByEmail(patientEmail);
+        Doctor doctor = getBookableDoctor(request);
+        LocalDateTime slot = request.getAppointmentDateTime();
 
-        Doctor doctor = doctorRepository.findById(request.getDoctorId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Doctor not found with id: " + request.getDoctorId()));
-
-        if (doctor.getAvailable() != null && !doctor.getAvailable()) {
-            throw new BadRequestException("Doctor is not available for appointments");
+        int slotMinutes = scheduleService.getSlotMinutes(doctor.getId());
+        DoctorSlotIndex.Claim claim;
+        if (request.getHoldId() != null) {
+            claim = slotIndex.confirmHold(request.getHoldId(), patient.getId(), doctor.getId(), slot);
+            if (claim == null) {
+                throw new BadRequestException("The slot hold has expired or does not match this booking");
+            }
+        } else {
+            claim = slotIndex.reserve(doctor.getId(), slot, slotMinutes);
+            if (claim == null) {
+                throw new BadRequestException("The selected time slot is already booked");
+            }
         }
+        // However the booking fails from here on, including at commit, the claim must not outlive it
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    slotIndex.release(claim);
+                }
+            }
+        });
 
-        if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
-            throw new BadRequestException("Appointment date must be in the future");
+        // The index only knows this node's bookings: lock every day the slot can overlap, then check the
+        // database. Two overlapping bookings always share the day of the earlier start.
+        LocalDateTime overlapFrom = slot.minusMinutes(slotMinutes);
+        LocalDateTime overlapTo = slot.plusMinutes(slotMinutes);
+        for (LocalDate day = overlapFrom.toLocalDate(); !day.isAfter(overlapTo.toLocalDate()); day = day.plusDays(1)) {
+            bookingDayRepository.lock(doctor.getId(), day);
+        }
+        if (appointmentRepository.existsActiveSlotBetween(doctor.getId(), overlapFrom, overlapTo)) {
+            throw new BadRequestException("The selected time slot is already booked");
         }
 
         Appointment appointment = Appointment.builder()
                 .patient(patient)
                 .doctor(doctor)
-                .appointmentDateTime(request.getAppointmentDateTime())
+                .appointmentDateTime(slot)
+                .activeSlot(slot)
                 .status(AppointmentStatus.PENDING)
                 .reason(request.getReason())
                 .build();
 
-        appointment = appointmentRepository.save(appointment);
+        try {
+            appointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("The selected time slot is already booked");
+        }
+        eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.BOOKED,
+                appointment.getId(), doctor.getId(), patient.getId(), slot, null, AppointmentStatus.PENDING));
         return mapToResponse(appointment);
     }
 
@@ -70,74 +177,234 @@ public class AppointmentService {
      * Get appointments for a patient.
      */
     public List<AppointmentResponse> getPatientAppointments(String patientEmail) {
-        Patient patient = patientService.getPatientEntityByEmail(patientEmail);
-        return appointmentRepository.findByPatientIdOrderByAppointmentDateTimeDesc(patient.getId())
-                .stream().map(this::mapToResponse).collect(Collectors.toList());
+        Long patientId = actorService.getPatientId(patientEmail);
+        return appointmentFlags.apply(appointmentRepository.findResponsesByPatientId(patientId));
     }
 
     /**
      * Get appointments for a doctor by email.
      */
     public List<AppointmentResponse> getDoctorAppointments(String doctorEmail) {
-        User user = userRepository.findByEmail(doctorEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
-        return appointmentRepository.findByDoctorIdOrderByAppointmentDateTimeDesc(doctor.getId())
-                .stream().map(this::mapToResponse).collect(Collectors.toList());
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        return appointmentFlags.apply(appointmentRepository.findResponsesByDoctorId(doctorId));
+    }
+
+    /**
+     * Get one page of a patient's appointments, newest first.
+     */
+    public CursorPage<AppointmentResponse> getPatientAppointmentsPage(
+            String patientEmail, String cursor, Integer limit) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<AppointmentResponse> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findPatientPage(patientId, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = appointmentRepository.findPatientPageBefore(
+                    patientId, after.getTimestamp(), after.getId(), pageable);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Get one page of a doctor's appointments, newest first.
+     */
+    public CursorPage<AppointmentResponse> getDoctorAppointmentsPage(
+            String doctorEmail, String cursor, Integer limit) {
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<AppointmentResponse> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findDoctorPage(doctorId, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = appointmentRepository.findDoctorPageBefore(
+                    doctorId, after.getTimestamp(), after.getId(), pageable);
+        }
+        return toPage(rows, pageSize);
     }
 
     /**
      * Update appointment status (doctor action).
+     * Each allowed source status is tried as a conditional update, so concurrent changes
+     * cannot be lost and the previous status is known exactly.
      */
     @Transactional
     public AppointmentResponse updateStatus(Long appointmentId, String status, String doctorEmail) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        AppointmentStatus newStatus = parseStatus(status);
+
+        for (AppointmentStatus previousStatus : newStatus.sources()) {
+            if (appointmentRepository.transitionStatus(appointmentId, doctorId,
+                    previousStatus, newStatus, newStatus.holdsSlot()) == 1) {
+                AppointmentResponse appointment = getAppointmentById(appointmentId);
+                eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.STATUS_CHANGED,
+                        appointmentId, doctorId, appointment.getPatientId(),
+                        appointment.getAppointmentDateTime(), previousStatus, newStatus));
+                return appointment;
+            }
+        }
+
+        AppointmentResponse current = appointmentRepository.findResponseById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with id: " + appointmentId));
+        if (!current.getDoctorId().equals(doctorId)) {
+            throw new BadRequestException("You can only update your own appointments");
+        }
+        throw new BadRequestException("Cannot change appointment status from "
+                + current.getStatus() + " to " + newStatus);
+    }
 
-        User user = userRepository.findByEmail(doctorEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+    /**
+     * Update the status of many appointments in one transaction (doctor action).
+     * Transitions are validated against one read of the appointments and applied as a single
+     * JDBC batch of conditional updates; each item reports its own outcome.
+     */
+    @Transactional
+    public List<StatusUpdateResult> updateStatuses(BulkStatusUpdateRequest request, String doctorEmail) {
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        Set<Long> ids = request.getUpdates().stream()
+                .map(StatusUpdateItem::getAppointmentId).collect(Collectors.toSet());
+        Map<Long, AppointmentResponse> current = new HashMap<>();
+        for (AppointmentResponse response : appointmentRepository.findResponsesByIdIn(ids)) {
+            current.put(response.getId(), response);
+        }
 
-        if (!appointment.getDoctor().getId().equals(doctor.getId())) {
-            throw new BadRequestException("You can only update your own appointments");
+        List<StatusUpdateResult> results = new ArrayList<>();
+        List<AppointmentStatusBatchRepository.Transition> transitions = new ArrayList<>();
+        List<StatusUpdateResult> pending = new ArrayList<>();
+        Map<Long, AppointmentStatus> statuses = new HashMap<>();
+        for (StatusUpdateItem item : request.getUpdates()) {
+            StatusUpdateResult result = StatusUpdateResult.builder().appointmentId(item.getAppointmentId()).build();
+            results.add(result);
+            AppointmentResponse appointment = current.get(item.getAppointmentId());
+            if (appointment == null) {
+                result.setMessage("Appointment not found with id: " + item.getAppointmentId());
+                continue;
+            }
+            if (!appointment.getDoctorId().equals(doctorId)) {
+                result.setMessage("You can only update your own appointments");
+                continue;
+            }
+            AppointmentStatus newStatus;
+            try {
+                newStatus = parseStatus(item.getStatus());
+            } catch (BadRequestException e) {
+                result.setMessage(e.getMessage());
+                continue;
+            }
+            AppointmentStatus previousStatus = statuses.getOrDefault(appointment.getId(), appointment.getStatus());
+            if (!previousStatus.canTransitionTo(newStatus)) {
+                result.setMessage("Cannot change appointment status from " + previousStatus + " to " + newStatus);
+                continue;
+            }
+            statuses.put(appointment.getId(), newStatus);
+            transitions.add(new AppointmentStatusBatchRepository.Transition(
+                    appointment.getId(), previousStatus, newStatus));
+            pending.add(result);
+        }
+        if (transitions.isEmpty()) {
+            return results;
         }
 
-        AppointmentStatus newStatus = AppointmentStatus.valueOf(status.toUpperCase());
-        appointment.setStatus(newStatus);
-        appointment = appointmentRepository.save(appointment);
-        return mapToResponse(appointment);
+        int[] counts = statusBatchRepository.transitionAll(doctorId, transitions);
+        Set<AppointmentResponse> updated = new LinkedHashSet<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            AppointmentStatusBatchRepository.Transition transition = transitions.get(i);
+            StatusUpdateResult result = pending.get(i);
+            if (counts[i] == 0) {
+                result.setMessage("Appointment was changed concurrently, please retry");
+                continue;
+            }
+            AppointmentResponse appointment = current.get(transition.getAppointmentId());
+            appointment.setStatus(transition.getStatus());
+            result.setSuccess(true);
+            result.setMessage("Status updated to " + transition.getStatus());
+            result.setAppointment(appointment);
+            updated.add(appointment);
+            eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.STATUS_CHANGED,
+                    appointment.getId(), doctorId, appointment.getPatientId(), appointment.getAppointmentDateTime(),
+                    transition.getExpected(), transition.getStatus()));
+        }
+        appointmentFlags.apply(new ArrayList<>(updated));
+        return results;
     }
 
     /**
-     * Get today's appointments for a doctor.
+     * Get today's appointments for a doctor, served from the in-memory day view.
      */
     public List<AppointmentResponse> getDoctorTodayAppointments(String doctorEmail) {
-        User user = userRepository.findByEmail(doctorEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+        return dayView.getToday(actorService.getDoctorId(doctorEmail));
+    }
 
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
+    /**
+     * Get a doctor's dashboard statistics from the in-memory counters.
+     */
+    public DoctorStatsResponse getDoctorStats(String doctorEmail) {
+        return statsView.getStats(actorService.getDoctorId(doctorEmail));
+    }
 
-        return appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(
-                        doctor.getId(), startOfDay, endOfDay)
-                .stream().map(this::mapToResponse).collect(Collectors.toList());
+    /**
+     * Recompute a doctor's dashboard statistics from their full history.
+     */
+    public DoctorStatsResponse recomputeDoctorStats(String doctorEmail) {
+        return statsView.recompute(actorService.getDoctorId(doctorEmail));
     }
 
     /**
      * Get appointment by ID.
      */
     public AppointmentResponse getAppointmentById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        AppointmentResponse response = appointmentRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with id: " + id));
-        return mapToResponse(appointment);
+        response.setHasPrescription(prescriptionRepository.existsByAppointmentId(id));
+        response.setHasPayment(paymentRepository.existsByAppointmentId(id));
+        return response;
     }
 
+    private AppointmentStatus parseStatus(String status) {
+        if (status == null) {
+            throw new BadRequestException("Status is required");
+        }
+        try {
+            return AppointmentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid appointment status: " + status);
+        }
+    }
+
+    private Doctor getBookableDoctor(AppointmentRequest request) {
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with id: " + request.getDoctorId()));
+
+        if (doctor.getAvailable() != null && !doctor.getAvailable()) {
+            throw new BadRequestException("Doctor is not available for appointments");
+        }
+
+        if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Appointment date must be in the future");
+        }
+
+        scheduleService.validateBookingTime(doctor.getId(), request.getAppointmentDateTime());
+        return doctor;
+    }
+
+    private CursorPage<AppointmentResponse> toPage(List<AppointmentResponse> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(appointmentFlags.apply(rows), null);
+        }
+        List<AppointmentResponse> page = rows.subList(0, pageSize);
+        AppointmentResponse last = page.get(pageSize - 1);
+        String nextCursor = new PageCursor(last.getAppointmentDateTime(), last.getId()).encode();
+        return new CursorPage<>(appointmentFlags.apply(page), nextCursor);
+    }
+
+
     private AppointmentResponse mapToResponse(Appointment appointment) {
         return AppointmentResponse.builder()
                 .id(appointment.getId())
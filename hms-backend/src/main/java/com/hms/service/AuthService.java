@@ -4,19 +4,22 @@ import com.hms.dto.*;
 import com.hms.entity.*;
 import com.hms.entity.enums.Gender;
 import com.hms.entity.enums.Role;
+import com.hms.event.DoctorChangedEvent;
 import com.hms.exception.BadRequestException;
+import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.*;
 import com.hms.security.JwtTokenProvider;
+import com.hms.security.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authentication Service - handles user registration and login.
+ * Authentication Service - handles user registration, login, logout and password changes.
  */
 @Service
 public class AuthService {
@@ -33,6 +36,12 @@ public class AuthService {
     private AuthenticationManager authenticationManager;
     @Autowired
     private JwtTokenProvider tokenProvider;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
 
     /**
      * Register a new user (patient or doctor).
@@ -56,8 +65,10 @@ public class AuthService {
                 .build();
 
         user = userRepository.save(user);
+        actorService.evict(user.getEmail());
 
         // Create role-specific profile
+        Long profileId = null;
         if (role == Role.PATIENT) {
             Patient patient = Patient.builder()
                     .user(user)
@@ -68,7 +79,7 @@ public class AuthService {
                     .address(request.getAddress())
                     .emergencyContact(request.getEmergencyContact())
                     .build();
-            patientRepository.save(patient);
+            profileId = patientRepository.save(patient).getId();
         } else if (role == Role.DOCTOR) {
             Doctor doctor = Doctor.builder()
                     .user(user)
@@ -79,11 +90,12 @@ public class AuthService {
                     .bio(request.getBio())
                     .available(true)
                     .build();
-            doctorRepository.save(doctor);
+            profileId = doctorRepository.save(doctor).getId();
+            eventPublisher.publishEvent(new DoctorChangedEvent(profileId));
         }
 
         // Generate JWT token
-        String token = tokenProvider.generateToken(user.getEmail());
+        String token = tokenProvider.generateToken(user, profileId);
 
         return AuthResponse.builder()
                 .token(token)
@@ -99,14 +111,46 @@ public class AuthService {
      * Authenticate user and return JWT token.
      */
     public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+        authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(), request.getPassword()));
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadRequestException("User not found"));
 
-        String token = tokenProvider.generateToken(authentication);
+        String token = tokenProvider.generateToken(user, findProfileId(user));
+
+        return AuthResponse.builder()
+                .token(token)
+                .type("Bearer")
+                .userId(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .build();
+    }
+
+    /**
+     * Log the user out of every session by revoking all tokens issued to them.
+     */
+    public void logout(String email) {
+        tokenVersionRegistry.revokeTokens(actorService.resolve(email).getUserId());
+    }
+
+    /**
+     * Change the user's password. All existing tokens are revoked; the caller gets a fresh one.
+     */
+    @Transactional
+    public AuthResponse changePassword(String email, ChangePasswordRequest request) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            throw new BadRequestException("Current password is incorrect");
+        }
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setTokenVersion(tokenVersionRegistry.revokeTokens(user.getId()));
+
+        String token = tokenProvider.generateToken(user, findProfileId(user));
 
         return AuthResponse.builder()
                 .token(token)
@@ -117,4 +161,11 @@ public class AuthService {
                 .role(user.getRole().name())
                 .build();
     }
+
+    private Long findProfileId(User user) {
+        if (user.getRole() == Role.DOCTOR) {
+            return doctorRepository.findByUserId(user.getId()).map(Doctor::getId).orElse(null);
+        }
+        return patientRepository.findByUserId(user.getId()).map(Patient::getId).orElse(null);
+    }
 }
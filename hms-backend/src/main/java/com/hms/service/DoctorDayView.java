@@ -0,0 +1,156 @@
+package com.hms.service;
+
+import com.hms.dto.AppointmentResponse;
+import com.hms.event.AppointmentEvent;
+import com.hms.event.DoctorChangedEvent;
+import com.hms.event.PatientChangedEvent;
+import com.hms.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Doctor Day View - in-memory list of each doctor's appointments for today.
+ * <p>
+ * A doctor's bucket is loaded on first access and then kept current from committed appointment events,
+ * so the "today" endpoints are a map lookup. Rows are never mutated once published; every change swaps
+ * in a new immutable list. Buckets belong to one day and are dropped at midnight.
+ * <p>
+ * A loaded bucket is published only if no change for its stripe happened while it was loading. The version
+ * is checked and bumped inside {@code compute} on the doctor's entry, so a change either rejects the load
+ * or finds the published bucket and updates it.
+ */
+@Component
+public class DoctorDayView {
+
+    private static final int CHANGE_STRIPES = 64;
+    private static final Comparator<AppointmentResponse> BY_TIME = Comparator
+            .comparing(AppointmentResponse::getAppointmentDateTime)
+            .thenComparing(AppointmentResponse::getId);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AppointmentFlags appointmentFlags;
+
+    private final Map<Long, DayBucket> buckets = new ConcurrentHashMap<>();
+
+    /** Bumped for every change to a doctor's day, so a load that raced with a change is not published. */
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    /**
+     * Today's appointments of a doctor, ordered by time.
+     */
+    public List<AppointmentResponse> getToday(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        DayBucket bucket = buckets.get(doctorId);
+        if (bucket != null && bucket.day().equals(today)) {
+            return bucket.rows();
+        }
+        long version = changes.get(stripe(doctorId));
+        List<AppointmentResponse> rows = load(doctorId, today);
+        buckets.compute(doctorId, (id, current) ->
+                changes.get(stripe(id)) == version ? new DayBucket(today, rows) : current);
+        return rows;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        buckets.compute(event.getDoctorId(), (id, current) -> {
+            changes.incrementAndGet(stripe(id));
+            return current;
+        });
+        DayBucket bucket = buckets.get(event.getDoctorId());
+        if (bucket == null || !bucket.day().equals(event.getAppointmentDateTime().toLocalDate())) {
+            return;
+        }
+        switch (event.getType()) {
+            case BOOKED -> appointmentRepository.findResponseById(event.getAppointmentId())
+                    .ifPresent(booked -> update(event, rows -> {
+                        rows.removeIf(row -> row.getId().equals(booked.getId()));
+                        rows.add(booked);
+                    }));
+            case STATUS_CHANGED -> replace(event, row -> row.toBuilder().status(event.getStatus()).build());
+            case PRESCRIPTION_ISSUED -> replace(event, row -> row.toBuilder()
+                    .status(event.getStatus()).hasPrescription(true).build());
+            case PAYMENT_COMPLETED -> replace(event, row -> row.toBuilder().hasPayment(true).build());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        buckets.compute(event.getDoctorId(), (id, current) -> {
+            changes.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+
+    /**
+     * The patient may be on any doctor's list, including ones still loading, so every stripe is bumped
+     * before the affected buckets are dropped.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        for (int i = 0; i < CHANGE_STRIPES; i++) {
+            changes.incrementAndGet(i);
+        }
+        buckets.values().removeIf(bucket -> bucket.rows().stream()
+                .anyMatch(row -> row.getPatientId().equals(event.getPatientId())));
+    }
+
+    /**
+     * Drop yesterday's buckets; they are reloaded lazily for the new day.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollOver() {
+        LocalDate today = LocalDate.now();
+        buckets.values().removeIf(bucket -> !bucket.day().equals(today));
+    }
+
+    private List<AppointmentResponse> load(Long doctorId, LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        List<AppointmentResponse> rows = appointmentRepository.findResponsesByDoctorIdBetween(
+                doctorId, start, start.plusDays(1));
+        appointmentFlags.apply(rows);
+        rows.sort(BY_TIME);
+        return Collections.unmodifiableList(rows);
+    }
+
+    private void replace(AppointmentEvent event, UnaryOperator<AppointmentResponse> change) {
+        update(event, rows -> rows.replaceAll(
+                row -> row.getId().equals(event.getAppointmentId()) ? change.apply(row) : row));
+    }
+
+    /**
+     * Swap in a changed copy of the doctor's bucket if it is for the event's day.
+     */
+    private void update(AppointmentEvent event, Consumer<List<AppointmentResponse>> change) {
+        LocalDate day = event.getAppointmentDateTime().toLocalDate();
+        buckets.computeIfPresent(event.getDoctorId(), (id, current) -> {
+            if (!current.day().equals(day)) {
+                return current;
+            }
+            List<AppointmentResponse> rows = new ArrayList<>(current.rows());
+            change.accept(rows);
+            rows.sort(BY_TIME);
+            return new DayBucket(day, Collections.unmodifiableList(rows));
+        });
+    }
+
+    private static int stripe(Long doctorId) {
+        return (int) (doctorId % CHANGE_STRIPES);
+    }
+
+    private record DayBucket(LocalDate day, List<AppointmentResponse> rows) {
+    }
+}
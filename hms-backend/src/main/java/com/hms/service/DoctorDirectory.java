@@ -0,0 +1,179 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.dto.ApiResponse;
+import com.hms.dto.DoctorResponse;
+import com.hms.event.DoctorChangedEvent;
+import com.hms.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Doctor Directory - immutable in-memory snapshot of all doctors for the public endpoints.
+ * Built once from the database, then patched one doctor at a time after each committed change.
+ * Changes committed on other nodes raise no local event, so the directory is also rebuilt periodically.
+ * Returned DoctorResponse instances are shared and must not be modified by callers.
+ * Each snapshot carries a hash of its serialized directory, used as the ETag of the public endpoints;
+ * it depends only on content, so it stays valid across restarts and is the same on every node.
+ */
+@Component
+public class DoctorDirectory {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Hex SHA-256 of the serialized directory; changes exactly when the published content changes.
+     */
+    public String getContentHash() {
+        return snapshot().contentHash();
+    }
+
+    /**
+     * All doctors, ordered by id.
+     */
+    public List<DoctorResponse> getAll() {
+        return snapshot().all();
+    }
+
+    /**
+     * The full directory pre-serialized as an ApiResponse JSON body.
+     */
+    public byte[] getAllJson() {
+        return snapshot().allJson();
+    }
+
+    public Optional<DoctorResponse> getById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    /**
+     * Available doctors, ordered by id.
+     */
+    public List<DoctorResponse> getAvailable() {
+        return snapshot().all().stream()
+                .filter(d -> Boolean.TRUE.equals(d.getAvailable()))
+                .toList();
+    }
+
+    /**
+     * Available doctors with the given specialization (case-insensitive).
+     */
+    public List<DoctorResponse> getAvailableBySpecialization(String specialization) {
+        return snapshot().availableBySpecialization()
+                .getOrDefault(specialization.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    /**
+     * Reload a single doctor once the transaction that changed it has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        refresh(event.getDoctorId());
+    }
+
+    /**
+     * Reload a single doctor and publish a new snapshot.
+     */
+    public synchronized void refresh(Long doctorId) {
+        if (snapshot == null) {
+            snapshot = build(doctorRepository.findAllResponses());
+            return;
+        }
+        Map<Long, DoctorResponse> byId = new TreeMap<>(snapshot.byId());
+        Optional<DoctorResponse> doctor = doctorRepository.findResponseById(doctorId);
+        if (doctor.isPresent()) {
+            byId.put(doctorId, doctor.get());
+        } else {
+            byId.remove(doctorId);
+        }
+        snapshot = build(byId.values());
+    }
+
+    /**
+     * Discard the snapshot and rebuild it from the database.
+     */
+    public synchronized void reload() {
+        snapshot = build(doctorRepository.findAllResponses());
+    }
+
+    /**
+     * Rebuild from the database so changes made on other nodes arrive within one interval.
+     * The directory is small, so a full read is cheap; the snapshot is only swapped when its content changed.
+     */
+    @Scheduled(fixedDelayString = "${app.doctors.directory-resync-ms:60000}",
+            initialDelayString = "${app.doctors.directory-resync-ms:60000}")
+    public synchronized void resync() {
+        Snapshot rebuilt = build(doctorRepository.findAllResponses());
+        if (snapshot == null || !snapshot.contentHash().equals(rebuilt.contentHash())) {
+            snapshot = rebuilt;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = build(doctorRepository.findAllResponses());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build(Collection<DoctorResponse> doctors) {
+        Map<Long, DoctorResponse> byId = new TreeMap<>();
+        for (DoctorResponse doctor : doctors) {
+            byId.put(doctor.getId(), doctor);
+        }
+        List<DoctorResponse> all = List.copyOf(byId.values());
+
+        Map<String, List<DoctorResponse>> bySpecialization = new HashMap<>();
+        for (DoctorResponse doctor : all) {
+            if (Boolean.TRUE.equals(doctor.getAvailable()) && doctor.getSpecialization() != null) {
+                bySpecialization.computeIfAbsent(
+                        doctor.getSpecialization().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                        .add(doctor);
+            }
+        }
+        bySpecialization.replaceAll((k, v) -> List.copyOf(v));
+
+        try {
+            byte[] allJson = objectMapper.writeValueAsBytes(
+                    ApiResponse.success("Doctors retrieved", all));
+            return new Snapshot(hash(allJson), Collections.unmodifiableMap(byId), all,
+                    Map.copyOf(bySpecialization), allJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize doctor directory", e);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Snapshot(String contentHash,
+                            Map<Long, DoctorResponse> byId,
+                            List<DoctorResponse> all,
+                            Map<String, List<DoctorResponse>> availableBySpecialization,
+                            byte[] allJson) {
+    }
+}
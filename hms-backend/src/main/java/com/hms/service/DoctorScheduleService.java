@@ -0,0 +1,223 @@
+package com.hms.service;
+
+import com.hms.dto.AvailableSlotsResponse;
+import com.hms.dto.DoctorResponse;
+import com.hms.dto.DoctorScheduleResponse;
+import com.hms.dto.WorkingHoursResponse;
+import com.hms.entity.Doctor;
+import com.hms.entity.DoctorWorkingHours;
+import com.hms.event.DoctorChangedEvent;
+import com.hms.exception.BadRequestException;
+import com.hms.exception.ResourceNotFoundException;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.DoctorWorkingHoursRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Doctor Schedule Service - weekly working-hours templates and free-slot computation.
+ * Templates are cached per doctor and evicted once the transaction that changed them has committed;
+ * occupancy comes from the DoctorSlotIndex day bitsets, so answering a slot query never touches the
+ * appointments table.
+ */
+@Service
+public class DoctorScheduleService {
+
+    public static final int MAX_WINDOW_DAYS = 31;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorWorkingHoursRepository workingHoursRepository;
+    @Autowired
+    private DoctorSlotIndex slotIndex;
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.appointments.slot-minutes:30}")
+    private int defaultSlotMinutes;
+
+    private final Map<Long, Template> templates = new ConcurrentHashMap<>();
+
+    /** Bumped on every eviction, so a template loaded before a commit is not cached after it. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Get a doctor's schedule template.
+     */
+    public DoctorScheduleResponse getSchedule(Long doctorId) {
+        return toResponse(doctorId, template(doctorId));
+    }
+
+    /**
+     * Replace the calling doctor's schedule template.
+     */
+    @Transactional
+    public DoctorScheduleResponse updateSchedule(String email, DoctorScheduleResponse request) {
+        Long doctorId = actorService.getDoctorId(email);
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+
+        if (request.getSlotMinutes() != null) {
+            int slotMinutes = request.getSlotMinutes();
+            if (slotMinutes <= 0 || slotMinutes % DoctorSlotIndex.GRANULARITY_MINUTES != 0) {
+                throw new BadRequestException("Slot length must be a positive multiple of "
+                        + DoctorSlotIndex.GRANULARITY_MINUTES + " minutes");
+            }
+            doctor.setSlotMinutes(slotMinutes);
+            doctorRepository.save(doctor);
+        }
+
+        if (request.getHours() != null) {
+            for (WorkingHoursResponse range : request.getHours()) {
+                if (range.getDayOfWeek() == null || range.getStartTime() == null || range.getEndTime() == null
+                        || !range.getStartTime().isBefore(range.getEndTime())) {
+                    throw new BadRequestException("Each working-hours range needs a day and a start before its end");
+                }
+            }
+            workingHoursRepository.deleteByDoctorId(doctorId);
+            for (WorkingHoursResponse range : request.getHours()) {
+                workingHoursRepository.save(DoctorWorkingHours.builder()
+                        .doctor(doctor)
+                        .dayOfWeek(range.getDayOfWeek())
+                        .startTime(range.getStartTime())
+                        .endTime(range.getEndTime())
+                        .build());
+            }
+        }
+
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctorId));
+        return toResponse(doctorId, load(doctorId));
+    }
+
+    /**
+     * Drop a doctor's cached template once the change is visible to other transactions.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        evictions.incrementAndGet();
+        templates.remove(event.getDoctorId());
+    }
+
+    /**
+     * Compute the free slots of a doctor between two dates (inclusive).
+     */
+    public AvailableSlotsResponse getAvailableSlots(Long doctorId, LocalDate from, LocalDate to) {
+        DoctorResponse doctor = doctorDirectory.getById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null ? from : today;
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_WINDOW_DAYS) {
+            throw new BadRequestException("Slot window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        Template template = template(doctorId);
+        List<LocalDateTime> slots = new ArrayList<>();
+        if (!Boolean.FALSE.equals(doctor.getAvailable())) {
+            LocalDateTime now = LocalDateTime.now();
+            for (LocalDate date = start.isBefore(today) ? today : start; !date.isAfter(end); date = date.plusDays(1)) {
+                for (WorkingHoursResponse range : template.byDay().getOrDefault(date.getDayOfWeek(), List.of())) {
+                    for (LocalTime t = range.getStartTime();
+                         !t.plusMinutes(template.slotMinutes()).isAfter(range.getEndTime())
+                                 && !t.plusMinutes(template.slotMinutes()).isBefore(t);
+                         t = t.plusMinutes(template.slotMinutes())) {
+                        LocalDateTime slot = date.atTime(t);
+                        if (slot.isAfter(now) && slotIndex.isFree(doctorId, slot, template.slotMinutes())) {
+                            slots.add(slot);
+                        }
+                    }
+                }
+            }
+        }
+        return AvailableSlotsResponse.builder()
+                .doctorId(doctorId)
+                .slotMinutes(template.slotMinutes())
+                .slots(slots)
+                .build();
+    }
+
+    /**
+     * Slot length used for a doctor's bookings.
+     */
+    public int getSlotMinutes(Long doctorId) {
+        return template(doctorId).slotMinutes();
+    }
+
+    /**
+     * Check that a booking time fits the doctor's template. Doctors without a template accept any time.
+     */
+    public void validateBookingTime(Long doctorId, LocalDateTime dateTime) {
+        Template template = template(doctorId);
+        if (template.hours().isEmpty()) {
+            return;
+        }
+        LocalTime time = dateTime.toLocalTime();
+        for (WorkingHoursResponse range : template.byDay().getOrDefault(dateTime.getDayOfWeek(), List.of())) {
+            long offset = ChronoUnit.MINUTES.between(range.getStartTime(), time);
+            if (offset >= 0 && offset % template.slotMinutes() == 0 && time.getSecond() == 0
+                    && !time.plusMinutes(template.slotMinutes()).isAfter(range.getEndTime())) {
+                return;
+            }
+        }
+        throw new BadRequestException("Selected time is not a slot within the doctor's working hours");
+    }
+
+    private Template template(Long doctorId) {
+        Template template = templates.get(doctorId);
+        if (template == null) {
+            long stamp = evictions.get();
+            Template loaded = load(doctorId);
+            template = templates.compute(doctorId, (id, cached) ->
+                    cached != null ? cached : evictions.get() == stamp ? loaded : null);
+            if (template == null) {
+                template = loaded;
+            }
+        }
+        return template;
+    }
+
+    private Template load(Long doctorId) {
+        Integer slotMinutes = doctorRepository.findSlotMinutesById(doctorId).orElse(null);
+        List<WorkingHoursResponse> hours = workingHoursRepository.findResponsesByDoctorId(doctorId);
+        Map<DayOfWeek, List<WorkingHoursResponse>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (WorkingHoursResponse range : hours) {
+            byDay.computeIfAbsent(range.getDayOfWeek(), d -> new ArrayList<>()).add(range);
+        }
+        return new Template(slotMinutes != null ? slotMinutes : defaultSlotMinutes, List.copyOf(hours), byDay);
+    }
+
+    private static DoctorScheduleResponse toResponse(Long doctorId, Template template) {
+        return DoctorScheduleResponse.builder()
+                .doctorId(doctorId)
+                .slotMinutes(template.slotMinutes())
+                .hours(template.hours())
+                .build();
+    }
+
+    private record Template(int slotMinutes,
+                            List<WorkingHoursResponse> hours,
+                            Map<DayOfWeek, List<WorkingHoursResponse>> byDay) {
+    }
+}
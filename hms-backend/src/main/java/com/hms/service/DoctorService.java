@@ -3,14 +3,16 @@ package com.hms.service;
 import com.hms.dto.DoctorResponse;
 import com.hms.entity.Doctor;
 import com.hms.entity.User;
+import com.hms.event.DoctorChangedEvent;
 import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.DoctorRepository;
 import com.hms.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Doctor Service - handles doctor profile management and queries.
@@ -22,76 +24,83 @@ public class DoctorService {
     private DoctorRepository doctorRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all doctors.
      */
     public List<DoctorResponse> getAllDoctors() {
-        return doctorRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return doctorDirectory.getAll();
     }
 
     /**
      * Get all available doctors.
      */
     public List<DoctorResponse> getAvailableDoctors() {
-        return doctorRepository.findByAvailableTrue().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return doctorDirectory.getAvailable();
+    }
+
+    /**
+     * Get all doctors as a pre-serialized ApiResponse JSON body.
+     */
+    public byte[] getAllDoctorsJson() {
+        return doctorDirectory.getAllJson();
+    }
+
+    /**
+     * Strong ETag for the public doctor endpoints, derived from the directory content.
+     */
+    public String getDirectoryETag() {
+        return "\"doctors-" + doctorDirectory.getContentHash() + "\"";
     }
 
     /**
      * Get doctor by ID.
      */
     public DoctorResponse getDoctorById(Long id) {
-        Doctor doctor = doctorRepository.findById(id)
+        return doctorDirectory.getById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + id));
-        return mapToResponse(doctor);
     }
 
     /**
      * Get doctors by specialization.
      */
     public List<DoctorResponse> getDoctorsBySpecialization(String specialization) {
-        return doctorRepository.findBySpecializationIgnoreCaseAndAvailableTrue(specialization)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return doctorDirectory.getAvailableBySpecialization(specialization);
     }
 
     /**
      * Get doctor profile by user email.
      */
     public DoctorResponse getDoctorByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+        Doctor doctor = getDoctorEntityByEmail(email);
         return mapToResponse(doctor);
     }
 
     /**
      * Update doctor availability.
      */
+    @Transactional
     public DoctorResponse updateAvailability(String email, boolean available) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+        Doctor doctor = getDoctorEntityByEmail(email);
         doctor.setAvailable(available);
         doctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctor.getId()));
         return mapToResponse(doctor);
     }
 
     /**
      * Update doctor profile.
      */
+    @Transactional
     public DoctorResponse updateProfile(String email, DoctorResponse request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctor = doctorRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+        Doctor doctor = getDoctorEntityByEmail(email);
+        User user = doctor.getUser();
 
         if (request.getName() != null) user.setName(request.getName());
         if (request.getPhone() != null) user.setPhone(request.getPhone());
@@ -104,6 +113,8 @@ public class DoctorService {
 
         userRepository.save(user);
         doctor = doctorRepository.save(doctor);
+        actorService.evict(email);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctor.getId()));
         return mapToResponse(doctor);
     }
 
@@ -111,9 +122,7 @@ public class DoctorService {
      * Get internal Doctor entity by user email (used by other services).
      */
     public Doctor getDoctorEntityByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return doctorRepository.findByUserId(user.getId())
+        return doctorRepository.findWithUserById(actorService.getDoctorId(email))
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
     }
 
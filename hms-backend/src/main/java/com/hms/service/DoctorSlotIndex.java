@@ -0,0 +1,420 @@
+package com.hms.service;
+
+import com.hms.dto.BookedSlot;
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.event.AppointmentEvent;
+import com.hms.exception.ConflictException;
+import com.hms.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Doctor Slot Index - in-memory view of each doctor's claimed time.
+ * <p>
+ * State is striped per (doctor, day): every stripe has its own lock, a sorted map of claims for
+ * O(log n) overlap checks and a bitset of occupied GRANULARITY_MINUTES cells for free-slot queries,
+ * so bookings for unrelated doctors or days never contend. A claim is either a booking
+ * (pending until its transaction commits) or a short-lived hold that a patient takes before
+ * confirming; expired holds are ignored and reclaimed in the background. Patient holds can be capped
+ * per patient and per patient and doctor, so one account cannot keep a doctor's calendar held.
+ * <p>
+ * The index only sees bookings made on this node since startup, so it is a fast first check, not the
+ * authority: AppointmentService also locks the doctor's booking day(s) in the database and checks for an
+ * overlapping appointment before saving, and the unique (doctor_id, active_slot) constraint backs up identical starts.
+ */
+@Component
+public class DoctorSlotIndex {
+
+    public static final int GRANULARITY_MINUTES = 5;
+    private static final int CELLS_PER_DAY = 24 * 60 / GRANULARITY_MINUTES;
+    private static final long PENDING_ID = -1L;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${app.appointments.slot-minutes:30}")
+    private int defaultSlotMinutes;
+
+    private final Map<StripeKey, DayStripe> stripes = new ConcurrentHashMap<>();
+    private final Map<String, Claim> holds = new ConcurrentHashMap<>();
+
+    /** Live holds of each patient; a patient's set is only read or changed inside compute on its key. */
+    private final Map<Long, Set<Claim>> patientHolds = new ConcurrentHashMap<>();
+
+    /**
+     * Seed the index with upcoming appointments that still hold their slot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        for (BookedSlot slot : appointmentRepository.findBookedSlotsFrom(from, AppointmentStatus.SLOT_HOLDING)) {
+            int minutes = slot.getSlotMinutes() != null ? slot.getSlotMinutes() : defaultSlotMinutes;
+            Claim claim = new Claim(slot.getDoctorId(), slot.getAppointmentDateTime(),
+                    slot.getAppointmentDateTime().plusMinutes(minutes), null, null, 0L);
+            claim.appointmentId = slot.getAppointmentId();
+            List<DayStripe> locked = stripesFor(claim.doctorId, claim.start, claim.end);
+            withLocks(locked, () -> {
+                locked.forEach(stripe -> stripe.add(claim));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Check whether [start, start + minutes) is free using the day bitset.
+     * Intended for slots within a single day, as produced by schedule templates.
+     */
+    public boolean isFree(Long doctorId, LocalDateTime start, int minutes) {
+        DayStripe stripe = stripes.get(new StripeKey(doctorId, start.toLocalDate()));
+        if (stripe == null) {
+            return true;
+        }
+        synchronized (stripe) {
+            stripe.purgeExpired(System.currentTimeMillis());
+            int from = cellOf(start);
+            int to = Math.min(CELLS_PER_DAY, from + (minutes + GRANULARITY_MINUTES - 1) / GRANULARITY_MINUTES);
+            int next = stripe.cells.nextSetBit(from);
+            return next == -1 || next >= to;
+        }
+    }
+
+    /**
+     * Atomically claim a slot for a booking in progress; returns null if it overlaps another claim.
+     */
+    public Claim reserve(Long doctorId, LocalDateTime start, int minutes) {
+        Claim claim = new Claim(doctorId, start, start.plusMinutes(minutes), null, null, 0L);
+        return tryClaim(claim) ? claim : null;
+    }
+
+    /**
+     * Take a short-lived hold on a slot for a patient; returns null if the slot is already claimed.
+     */
+    public Claim hold(Long doctorId, LocalDateTime start, int minutes, Long patientId, long ttlMillis) {
+        return hold(doctorId, start, minutes, patientId, ttlMillis, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Take a hold unless the patient already has maxHolds live holds, or maxHoldsPerDoctor with this doctor.
+     * Returns null if the slot is already claimed; throws ConflictException if a limit is reached.
+     */
+    public Claim hold(Long doctorId, LocalDateTime start, int minutes, Long patientId, long ttlMillis,
+                      int maxHolds, int maxHoldsPerDoctor) {
+        Claim claim = new Claim(doctorId, start, start.plusMinutes(minutes), UUID.randomUUID().toString(),
+                patientId, System.currentTimeMillis() + ttlMillis);
+        boolean[] claimed = new boolean[1];
+        patientHolds.compute(patientId, (id, own) -> {
+            Set<Claim> live = own != null ? own : new HashSet<>();
+            long now = System.currentTimeMillis();
+            live.removeIf(held -> held.isExpired(now));
+            if (live.size() >= maxHolds) {
+                throw new ConflictException("You already hold " + maxHolds
+                        + " slots; book or release one before holding another");
+            }
+            if (live.stream().filter(held -> held.doctorId.equals(doctorId)).count() >= maxHoldsPerDoctor) {
+                throw new ConflictException("You already hold a slot with this doctor; "
+                        + "book or release it before holding another");
+            }
+            if (tryClaim(claim)) {
+                holds.put(claim.holdId, claim);
+                live.add(claim);
+                claimed[0] = true;
+            }
+            return live.isEmpty() ? null : live;
+        });
+        return claimed[0] ? claim : null;
+    }
+
+    /**
+     * Turn a live hold owned by the patient into a pending booking for the same doctor and time.
+     * Returns null if the hold does not exist, belongs to someone else, does not match or has expired.
+     */
+    public Claim confirmHold(String holdId, Long patientId, Long doctorId, LocalDateTime start) {
+        Claim claim = holds.get(holdId);
+        if (claim == null || !claim.patientId.equals(patientId)
+                || !claim.doctorId.equals(doctorId) || !claim.start.equals(start)) {
+            return null;
+        }
+        List<DayStripe> locked = stripesFor(claim.doctorId, claim.start, claim.end);
+        Claim confirmed = withLocks(locked, () -> {
+            if (claim.isExpired(System.currentTimeMillis()) || holds.remove(holdId) == null) {
+                return null;
+            }
+            claim.expiresAt = 0L;
+            return claim;
+        });
+        if (confirmed != null) {
+            forgetHold(confirmed);
+        }
+        return confirmed;
+    }
+
+    /**
+     * Give up a hold before it expires.
+     */
+    public boolean releaseHold(String holdId, Long patientId) {
+        Claim claim = holds.get(holdId);
+        if (claim == null || !claim.patientId.equals(patientId)) {
+            return false;
+        }
+        holds.remove(holdId);
+        removeClaim(claim);
+        forgetHold(claim);
+        return true;
+    }
+
+    /**
+     * Give up a claim whose booking did not go through. Only that exact claim is removed, so this is
+     * safe even if the slot has been freed and claimed by someone else in the meantime.
+     */
+    public void release(Claim claim) {
+        removeClaim(claim);
+    }
+
+    /**
+     * Free a booked slot, e.g. when its appointment is cancelled or rejected.
+     * Bookings made through a confirmed hold are freed too; only a live hold on the same start is left alone.
+     */
+    public void release(Long doctorId, LocalDateTime start) {
+        DayStripe stripe = stripes.get(new StripeKey(doctorId, start.toLocalDate()));
+        if (stripe == null) {
+            return;
+        }
+        Claim claim;
+        synchronized (stripe) {
+            Segment segment = stripe.segments.get(start);
+            claim = segment != null && segment.claim.isBooking() ? segment.claim : null;
+        }
+        if (claim != null) {
+            removeClaim(claim);
+        }
+    }
+
+    /**
+     * Reclaim expired holds and drop stripes for past days.
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.hold-sweep-ms:10000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        holds.values().removeIf(claim -> {
+            if (claim.isExpired(now)) {
+                removeClaim(claim);
+                forgetHold(claim);
+                return true;
+            }
+            return false;
+        });
+        LocalDate today = LocalDate.now();
+        stripes.keySet().removeIf(key -> key.day().isBefore(today));
+    }
+
+    /**
+     * Runs before the other commit listeners, so a freed slot is already free when they react to it
+     * (e.g. the waitlist offering it to the next patient).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.BOOKED) {
+            DayStripe stripe = stripes.get(new StripeKey(event.getDoctorId(),
+                    event.getAppointmentDateTime().toLocalDate()));
+            if (stripe != null) {
+                synchronized (stripe) {
+                    Segment segment = stripe.segments.get(event.getAppointmentDateTime());
+                    if (segment != null && segment.claim.appointmentId == PENDING_ID) {
+                        segment.claim.appointmentId = event.getAppointmentId();
+                    }
+                }
+            }
+        } else if (event.getType() == AppointmentEvent.Type.STATUS_CHANGED
+                && event.getPreviousStatus().holdsSlot() && !event.getStatus().holdsSlot()) {
+            release(event.getDoctorId(), event.getAppointmentDateTime());
+        }
+    }
+
+    private boolean tryClaim(Claim claim) {
+        List<DayStripe> locked = stripesFor(claim.doctorId, claim.start, claim.end);
+        return withLocks(locked, () -> {
+            long now = System.currentTimeMillis();
+            for (DayStripe stripe : locked) {
+                stripe.purgeExpired(now);
+                if (stripe.overlaps(claim)) {
+                    return false;
+                }
+            }
+            locked.forEach(stripe -> stripe.add(claim));
+            return true;
+        });
+    }
+
+    /**
+     * Stop counting a hold against its patient's limits. Never called with stripe locks held, since
+     * hold() takes stripe locks inside compute on the patient.
+     */
+    private void forgetHold(Claim claim) {
+        patientHolds.computeIfPresent(claim.patientId, (id, live) -> {
+            live.remove(claim);
+            return live.isEmpty() ? null : live;
+        });
+    }
+
+    private void removeClaim(Claim claim) {
+        List<DayStripe> locked = stripesFor(claim.doctorId, claim.start, claim.end);
+        withLocks(locked, () -> {
+            locked.forEach(stripe -> stripe.remove(claim));
+            return null;
+        });
+    }
+
+    /**
+     * Stripes covered by [start, end), in day order so that locks are always taken in the same order.
+     */
+    private List<DayStripe> stripesFor(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        List<DayStripe> result = new ArrayList<>(2);
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            result.add(stripes.computeIfAbsent(new StripeKey(doctorId, day), DayStripe::new));
+        }
+        return result;
+    }
+
+    private static <T> T withLocks(List<DayStripe> locked, java.util.function.Supplier<T> action) {
+        return withLocks(locked, 0, action);
+    }
+
+    private static <T> T withLocks(List<DayStripe> locked, int index, java.util.function.Supplier<T> action) {
+        if (index == locked.size()) {
+            return action.get();
+        }
+        synchronized (locked.get(index)) {
+            return withLocks(locked, index + 1, action);
+        }
+    }
+
+    private static int cellOf(LocalDateTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / GRANULARITY_MINUTES;
+    }
+
+    private record StripeKey(Long doctorId, LocalDate day) {
+    }
+
+    /**
+     * A booking or hold on [start, end) of one doctor. Mutable fields are guarded by the stripe locks.
+     */
+    public static final class Claim {
+        private final Long doctorId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final String holdId;
+        private final Long patientId;
+        private volatile long expiresAt;
+        private volatile long appointmentId = PENDING_ID;
+
+        private Claim(Long doctorId, LocalDateTime start, LocalDateTime end,
+                      String holdId, Long patientId, long expiresAt) {
+            this.doctorId = doctorId;
+            this.start = start;
+            this.end = end;
+            this.holdId = holdId;
+            this.patientId = patientId;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getHoldId() {
+            return holdId;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * A booking, whether claimed directly or through a hold that was confirmed, rather than a live hold.
+         */
+        private boolean isBooking() {
+            return expiresAt == 0L;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0L && expiresAt <= now;
+        }
+    }
+
+    private record Segment(Claim claim, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Claims of one doctor on one day; guarded by synchronizing on the instance.
+     */
+    private static final class DayStripe {
+        private final LocalDateTime dayStart;
+        private final LocalDateTime dayEnd;
+        private final TreeMap<LocalDateTime, Segment> segments = new TreeMap<>();
+        private final BitSet cells = new BitSet(CELLS_PER_DAY);
+
+        DayStripe(StripeKey key) {
+            this.dayStart = key.day().atStartOfDay();
+            this.dayEnd = dayStart.plusDays(1);
+        }
+
+        boolean overlaps(Claim claim) {
+            Segment candidate = segmentOf(claim);
+            Map.Entry<LocalDateTime, Segment> before = segments.floorEntry(candidate.start());
+            if (before != null && before.getValue().end().isAfter(candidate.start())) {
+                return true;
+            }
+            LocalDateTime after = segments.ceilingKey(candidate.start());
+            return after != null && candidate.end().isAfter(after);
+        }
+
+        void add(Claim claim) {
+            Segment segment = segmentOf(claim);
+            segments.put(segment.start(), segment);
+            mark(segment);
+        }
+
+        void remove(Claim claim) {
+            Segment segment = segments.get(segmentOf(claim).start());
+            if (segment != null && segment.claim() == claim) {
+                segments.remove(segment.start());
+                rebuildCells();
+            }
+        }
+
+        void purgeExpired(long now) {
+            if (segments.values().removeIf(segment -> segment.claim().isExpired(now))) {
+                rebuildCells();
+            }
+        }
+
+        private Segment segmentOf(Claim claim) {
+            LocalDateTime start = claim.start.isBefore(dayStart) ? dayStart : claim.start;
+            LocalDateTime end = claim.end.isAfter(dayEnd) ? dayEnd : claim.end;
+            return new Segment(claim, start, end);
+        }
+
+        private void rebuildCells() {
+            cells.clear();
+            segments.values().forEach(this::mark);
+        }
+
+        private void mark(Segment segment) {
+            int from = cellOf(segment.start());
+            int to = segment.end().equals(dayEnd) ? CELLS_PER_DAY
+                    : (segment.end().getHour() * 60 + segment.end().getMinute() + GRANULARITY_MINUTES - 1)
+                    / GRANULARITY_MINUTES;
+            cells.set(from, Math.max(from + 1, to));
+        }
+    }
+}
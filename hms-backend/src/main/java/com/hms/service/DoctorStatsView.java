@@ -0,0 +1,243 @@
+package com.hms.service;
+
+import com.hms.dto.AppointmentCount;
+import com.hms.dto.DoctorStatsResponse;
+import com.hms.dto.MonthlyStats;
+import com.hms.dto.RevenueTotal;
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.entity.enums.PaymentStatus;
+import com.hms.event.AppointmentEvent;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Doctor Stats View - per-doctor dashboard counters kept in memory.
+ * <p>
+ * Counts by status and month and the revenue from completed payments are aggregated in the database
+ * once at startup (or on demand) and then adjusted from committed appointment events, so reading a
+ * doctor's statistics never touches their history. A change is registered as pending as soon as it is
+ * published inside its transaction and stays pending until the transaction completes; a recompute that
+ * started while a change for the same doctor was pending, or that raced with one, is discarded and the
+ * doctor is reloaded on next access, so a committed change is never counted twice.
+ */
+@Component
+public class DoctorStatsView {
+
+    private static final int CHANGE_STRIPES = 64;
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+    /** Index of the revenue (in cents) in a month's counters, after one count per status. */
+    private static final int REVENUE = STATUSES.length;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Value("${app.stats.months:12}")
+    private int monthsShown;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    /** Bumped when a change starts and when it completes, so a recompute that raced with one is not kept. */
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    /** Changes published in transactions that have not completed yet. */
+    private final AtomicLongArray pending = new AtomicLongArray(CHANGE_STRIPES);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeAll() {
+        long[] versions = versions();
+        boolean[] quiet = quiet();
+        Map<Long, Counters> loaded = new HashMap<>();
+        for (AppointmentCount count : appointmentRepository.countByDoctorStatusAndMonth()) {
+            loaded.computeIfAbsent(count.getDoctorId(), id -> new Counters()).add(count);
+        }
+        for (RevenueTotal revenue : paymentRepository.sumByDoctorAndMonth(PaymentStatus.COMPLETED)) {
+            loaded.computeIfAbsent(revenue.getDoctorId(), id -> new Counters()).add(revenue);
+        }
+        counters.keySet().removeIf(doctorId -> !loaded.containsKey(doctorId));
+        loaded.forEach((doctorId, fresh) -> {
+            if (quiet[stripe(doctorId)] && changes.get(stripe(doctorId)) == versions[stripe(doctorId)]) {
+                counters.put(doctorId, fresh);
+            } else {
+                counters.remove(doctorId);
+            }
+        });
+    }
+
+    /**
+     * Rebuild one doctor's counters from the database.
+     */
+    public DoctorStatsResponse recompute(Long doctorId) {
+        counters.remove(doctorId);
+        return getStats(doctorId);
+    }
+
+    public DoctorStatsResponse getStats(Long doctorId) {
+        Counters current = counters.get(doctorId);
+        if (current == null) {
+            int stripe = stripe(doctorId);
+            long version = changes.get(stripe);
+            boolean quiet = pending.get(stripe) == 0;
+            current = load(doctorId);
+            if (quiet && changes.get(stripe) == version) {
+                counters.put(doctorId, current);
+            }
+        }
+        return current.toResponse(doctorId, monthsShown);
+    }
+
+    /**
+     * Mark the doctor's counters as changing until the publishing transaction completes; the counters
+     * themselves are adjusted after commit.
+     */
+    @EventListener
+    public void onAppointmentPublished(AppointmentEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        int stripe = stripe(event.getDoctorId());
+        pending.incrementAndGet(stripe);
+        changes.incrementAndGet(stripe);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                changes.incrementAndGet(stripe);
+                pending.decrementAndGet(stripe);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        Counters current = counters.get(event.getDoctorId());
+        if (current == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(event.getAppointmentDateTime());
+        switch (event.getType()) {
+            case BOOKED -> current.adjust(month, event.getStatus().ordinal(), 1);
+            case STATUS_CHANGED -> {
+                current.adjust(month, event.getPreviousStatus().ordinal(), -1);
+                current.adjust(month, event.getStatus().ordinal(), 1);
+            }
+            case PAYMENT_COMPLETED -> paymentRepository
+                    .findAmountByAppointmentIdAndStatus(event.getAppointmentId(), PaymentStatus.COMPLETED)
+                    .ifPresent(amount -> current.adjust(month, REVENUE, toCents(amount)));
+            case PRESCRIPTION_ISSUED -> {
+            }
+        }
+    }
+
+    private Counters load(Long doctorId) {
+        Counters loaded = new Counters();
+        appointmentRepository.countByStatusAndMonth(doctorId).forEach(loaded::add);
+        paymentRepository.sumByMonth(doctorId, PaymentStatus.COMPLETED).forEach(loaded::add);
+        return loaded;
+    }
+
+    private long[] versions() {
+        long[] versions = new long[CHANGE_STRIPES];
+        for (int i = 0; i < CHANGE_STRIPES; i++) {
+            versions[i] = changes.get(i);
+        }
+        return versions;
+    }
+
+    private boolean[] quiet() {
+        boolean[] quiet = new boolean[CHANGE_STRIPES];
+        for (int i = 0; i < CHANGE_STRIPES; i++) {
+            quiet[i] = pending.get(i) == 0;
+        }
+        return quiet;
+    }
+
+    private static int stripe(Long doctorId) {
+        return (int) (doctorId % CHANGE_STRIPES);
+    }
+
+    private static long toCents(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0L;
+    }
+
+    /**
+     * One doctor's counters: per month, one count per status followed by the revenue in cents.
+     * Guarded by synchronizing on the instance.
+     */
+    private static final class Counters {
+        private final NavigableMap<YearMonth, long[]> months = new TreeMap<>();
+        private final LocalDateTime recomputedAt = LocalDateTime.now();
+
+        synchronized void add(AppointmentCount count) {
+            month(YearMonth.of(count.getYear(), count.getMonth()))[count.getStatus().ordinal()] += count.getCount();
+        }
+
+        synchronized void add(RevenueTotal revenue) {
+            month(YearMonth.of(revenue.getYear(), revenue.getMonth()))[REVENUE] += toCents(revenue.getAmount());
+        }
+
+        synchronized void adjust(YearMonth month, int index, long delta) {
+            month(month)[index] += delta;
+        }
+
+        synchronized DoctorStatsResponse toResponse(Long doctorId, int monthsShown) {
+            long[] totals = new long[REVENUE + 1];
+            for (long[] values : months.values()) {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += values[i];
+                }
+            }
+            Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+            long total = 0;
+            for (AppointmentStatus status : STATUSES) {
+                byStatus.put(status, totals[status.ordinal()]);
+                total += totals[status.ordinal()];
+            }
+            // Upcoming bookings count towards the totals, but months that have not started are not shown
+            List<MonthlyStats> recent = new ArrayList<>();
+            for (Map.Entry<YearMonth, long[]> entry : months.headMap(YearMonth.now(), true).descendingMap().entrySet()) {
+                if (recent.size() == monthsShown) {
+                    break;
+                }
+                long[] values = entry.getValue();
+                long appointments = 0;
+                for (int i = 0; i < REVENUE; i++) {
+                    appointments += values[i];
+                }
+                recent.add(MonthlyStats.builder()
+                        .month(entry.getKey())
+                        .appointments(appointments)
+                        .completed(values[AppointmentStatus.COMPLETED.ordinal()])
+                        .revenue(values[REVENUE] / 100.0)
+                        .build());
+            }
+            return DoctorStatsResponse.builder()
+                    .doctorId(doctorId)
+                    .totalAppointments(total)
+                    .byStatus(byStatus)
+                    .totalRevenue(totals[REVENUE] / 100.0)
+                    .months(recent)
+                    .recomputedAt(recomputedAt)
+                    .build();
+        }
+
+        private long[] month(YearMonth month) {
+            return months.computeIfAbsent(month, key -> new long[REVENUE + 1]);
+        }
+    }
+}
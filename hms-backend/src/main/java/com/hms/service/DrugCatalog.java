@@ -0,0 +1,169 @@
+package com.hms.service;
+
+import com.hms.dto.DrugSuggestion;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Drug Catalog - the bundled drug list, indexed for prefix autocomplete.
+ * <p>
+ * Drugs are kept in one array sorted by lower-cased name, so all names starting with a prefix form a
+ * contiguous range found by two binary searches. The query is compared character by character in place
+ * and the result is a view over the shared array, so a lookup allocates nothing per matching drug.
+ * <p>
+ * Some drugs are listed under more than one name (e.g. Acetaminophen and Paracetamol). Both names are
+ * suggested, but they share one canonical id, which is what duplicate and interaction checks compare.
+ */
+@Component
+public class DrugCatalog {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    @Value("${app.drugs.catalog:classpath:drugs.csv}")
+    private Resource catalog;
+
+    private String[] keys;
+    private List<DrugSuggestion> drugs;
+    private int[] canonicalIds;
+
+    @PostConstruct
+    public void load() {
+        SortedMap<String, DrugSuggestion> sorted = new TreeMap<>();
+        Map<String, String> sameAs = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(catalog.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 3);
+                String name = fields[0].trim();
+                String drugClass = fields.length > 1 ? fields[1].trim() : null;
+                sorted.putIfAbsent(name.toLowerCase(Locale.ROOT), new DrugSuggestion(name, drugClass));
+                if (fields.length > 2 && !fields[2].isBlank()) {
+                    sameAs.put(name.toLowerCase(Locale.ROOT), fields[2].trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load drug catalog " + catalog, e);
+        }
+        keys = sorted.keySet().toArray(new String[0]);
+        drugs = List.copyOf(sorted.values());
+
+        canonicalIds = new int[keys.length];
+        for (int id = 0; id < keys.length; id++) {
+            canonicalIds[id] = id;
+        }
+        sameAs.forEach((alias, target) -> {
+            int targetId = idOf(target);
+            if (targetId < 0 || sameAs.containsKey(keys[targetId])) {
+                throw new IllegalStateException("Drug " + alias + " is listed as the same as unknown or alternative name " + target);
+            }
+            canonicalIds[idOf(alias)] = targetId;
+        });
+    }
+
+    /**
+     * Drugs whose name starts with the given text (case-insensitive, surrounding blanks ignored), by name.
+     */
+    public List<DrugSuggestion> suggest(String query, int limit) {
+        int start = 0;
+        int end = query.length();
+        while (start < end && Character.isWhitespace(query.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(query.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return List.of();
+        }
+        int from = firstAtLeast(query, start, end, 0);
+        int to = firstAtLeast(query, start, end, 1);
+        return drugs.subList(from, Math.min(to, from + Math.max(0, Math.min(limit, MAX_SUGGESTIONS))));
+    }
+
+    /**
+     * The catalog entry with exactly this name (case-insensitive), if any.
+     */
+    public Optional<DrugSuggestion> find(String name) {
+        int id = idOf(name);
+        return id < 0 ? Optional.empty() : Optional.of(drugs.get(id));
+    }
+
+    /**
+     * Dense id (0 to size - 1) of the drug with exactly this name (case-insensitive), or -1 if unknown.
+     */
+    public int idOf(String name) {
+        String trimmed = name.trim();
+        int index = firstAtLeast(trimmed, 0, trimmed.length(), 0);
+        if (index < keys.length && keys[index].length() == trimmed.length()
+                && comparePrefix(keys[index], trimmed, 0, trimmed.length()) == 0) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Id shared by all names of the same drug, or -1 if the name is unknown.
+     */
+    public int canonicalIdOf(String name) {
+        int id = idOf(name);
+        return id < 0 ? -1 : canonicalIds[id];
+    }
+
+    public String nameOf(int id) {
+        return drugs.get(id).getName();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * First index whose key compares at least {@code bound} against the prefix: 0 finds the start of the
+     * matching range, 1 its end.
+     */
+    private int firstAtLeast(CharSequence query, int start, int end, int bound) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Integer.signum(comparePrefix(keys[mid], query, start, end));
+            if (cmp < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compare the start of a key with query[start, end), lower-casing the query on the fly;
+     * 0 means the key starts with the query.
+     */
+    private static int comparePrefix(String key, CharSequence query, int start, int end) {
+        for (int i = start; i < end; i++) {
+            int k = i - start;
+            if (k == key.length()) {
+                return -1;
+            }
+            int diff = key.charAt(k) - Character.toLowerCase(query.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.hms.service;
+
+import com.hms.dto.DrugInteractionWarning;
+import com.hms.dto.DrugInteractionWarning.Severity;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drug Interaction Checker - looks up known interactions between pairs of catalog drugs.
+ * <p>
+ * The bundled interaction table is held as a sparse symmetric matrix over the catalog's canonical drug ids
+ * (so an interaction listed for Paracetamol also applies to Acetaminophen):
+ * an open-addressing hash table from the packed (lower id, higher id) pair to an interaction index, in
+ * plain long and int arrays. A pair lookup is a few array reads with no boxing, so checking every pair
+ * across a patient's medications takes microseconds.
+ */
+@Component
+public class DrugInteractionChecker {
+
+    private static final long EMPTY = -1L;
+
+    @Autowired
+    private DrugCatalog drugCatalog;
+
+    @Value("${app.drugs.interactions:classpath:drug-interactions.csv}")
+    private Resource interactions;
+
+    private long[] pairs;
+    private int[] slots;
+    private int mask;
+    private Severity[] severities;
+    private String[] descriptions;
+
+    @PostConstruct
+    public void load() {
+        List<long[]> rows = new ArrayList<>();
+        List<Severity> severityList = new ArrayList<>();
+        List<String> descriptionList = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(interactions.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 4);
+                int first = drugCatalog.canonicalIdOf(fields[0]);
+                int second = drugCatalog.canonicalIdOf(fields[1]);
+                if (first < 0 || second < 0 || fields.length < 4) {
+                    throw new IllegalStateException("Invalid drug interaction entry: " + line);
+                }
+                rows.add(new long[]{pairKey(first, second), severityList.size()});
+                severityList.add(Severity.valueOf(fields[2].trim()));
+                descriptionList.add(fields[3].trim());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load drug interactions " + interactions, e);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(rows.size(), 1) * 2 - 1) << 1;
+        pairs = new long[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(pairs, EMPTY);
+        for (long[] row : rows) {
+            int slot = indexOf(row[0]);
+            pairs[slot] = row[0];
+            slots[slot] = (int) row[1];
+        }
+        severities = severityList.toArray(new Severity[0]);
+        descriptions = descriptionList.toArray(new String[0]);
+    }
+
+    /**
+     * Interactions of each new drug with the other new drugs and with the patient's active drugs.
+     * Drugs not in the catalog are skipped.
+     */
+    public List<DrugInteractionWarning> check(List<String> newDrugs, List<String> activeDrugs) {
+        List<String> freshNames = new ArrayList<>();
+        int[] fresh = ids(newDrugs, freshNames);
+        List<String> activeNames = new ArrayList<>();
+        int[] active = ids(activeDrugs, activeNames);
+        List<DrugInteractionWarning> warnings = new ArrayList<>();
+        for (int i = 0; i < fresh.length; i++) {
+            for (int j = i + 1; j < fresh.length; j++) {
+                addIfInteracting(fresh[i], fresh[j], freshNames.get(i), freshNames.get(j), false, warnings);
+            }
+            for (int j = 0; j < active.length; j++) {
+                addIfInteracting(fresh[i], active[j], freshNames.get(i), activeNames.get(j), true, warnings);
+            }
+        }
+        return warnings;
+    }
+
+    private void addIfInteracting(int drug, int other, String drugName, String otherName, boolean fromActive,
+                                  List<DrugInteractionWarning> warnings) {
+        if (drug == other) {
+            return;
+        }
+        long key = pairKey(drug, other);
+        int slot = indexOf(key);
+        if (pairs[slot] == key) {
+            int interaction = slots[slot];
+            warnings.add(new DrugInteractionWarning(drugName, otherName,
+                    severities[interaction], descriptions[interaction], fromActive));
+        }
+    }
+
+    /**
+     * Distinct canonical ids of the given names, unknown names dropped; the catalog spelling of the first
+     * name seen for each id is added to {@code names}, so warnings name the drug as it was prescribed.
+     */
+    private int[] ids(List<String> drugs, List<String> names) {
+        Set<Integer> seen = new HashSet<>();
+        int[] ids = new int[drugs.size()];
+        int count = 0;
+        for (String drug : drugs) {
+            int id = drugCatalog.idOf(drug);
+            if (id < 0) {
+                continue;
+            }
+            int canonical = drugCatalog.canonicalIdOf(drug);
+            if (seen.add(canonical)) {
+                ids[count++] = canonical;
+                names.add(drugCatalog.nameOf(id));
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it would go (linear probing).
+     */
+    private int indexOf(long key) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (pairs[slot] != EMPTY && pairs[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long pairKey(int first, int second) {
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return ((long) low << 32) | high;
+    }
+}
@@ -0,0 +1,293 @@
+package com.hms.service;
+
+import com.hms.dto.ActorInfo;
+import com.hms.entity.enums.Role;
+import com.hms.event.AppointmentEvent;
+import com.hms.event.WaitlistOfferEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event Stream Service - pushes committed appointment lifecycle events to connected users over SSE.
+ * <p>
+ * Publishers never write to a connection: events are queued per subscriber in a small bounded buffer
+ * and written by a shared dispatch pool, one drain at a time per subscriber. If a slow client's
+ * buffer fills up it is replaced by a single "resync" event telling the client to reload.
+ * Idle connections hold no buffered events and are kept alive by periodic heartbeat comments.
+ * <p>
+ * A write to a client that stopped reading blocks its pool thread until the container gives up on the
+ * socket. A subscriber whose write has been in progress for longer than the write timeout is evicted:
+ * it gets no further events, the pool is given an extra thread for as long as the write stays blocked,
+ * and the stream is closed once the write returns, so stalled clients never hold up the others.
+ * Extra threads are capped; past the cap a stalled subscriber is still evicted, but its thread is only
+ * given back when the container's write timeout fails the blocked write.
+ */
+@Service
+public class EventStreamService {
+
+    public static final String RESYNC_EVENT = "RESYNC";
+    public static final String WAITLIST_OFFER_EVENT = "WAITLIST_OFFER";
+
+    private static final long EVICTED = -1;
+    private static final long EVICTED_WITH_THREAD = -2;
+    private static final long EVICTED_DONE = -3;
+
+    @Value("${app.events.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.events.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${app.events.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Value("${app.events.write-timeout-ms:5000}")
+    private long writeTimeoutMillis;
+
+    @Value("${app.events.max-stalled-threads:8}")
+    private int maxStalledThreads;
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ThreadPoolExecutor dispatcher;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Open a stream of the events that concern the given user.
+     */
+    public SseEmitter subscribe(ActorInfo actor) {
+        Long profileId = actor.getRole() == Role.DOCTOR ? actor.getDoctorId() : actor.getPatientId();
+        String key = keyOf(actor.getRole(), profileId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(key, emitter);
+
+        List<Subscriber> streams = subscribers.compute(key, (k, list) -> {
+            List<Subscriber> result = list != null ? list : new CopyOnWriteArrayList<>();
+            result.add(subscriber);
+            return result;
+        });
+        subscriberCount.incrementAndGet();
+        while (streams.size() > maxStreamsPerUser) {
+            Subscriber oldest = streams.get(0);
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        enqueue(subscriber, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        publish(keyOf(Role.DOCTOR, event.getDoctorId()), event.getType().name(), event);
+        publish(keyOf(Role.PATIENT, event.getPatientId()), event.getType().name(), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWaitlistOffer(WaitlistOfferEvent event) {
+        publish(keyOf(Role.PATIENT, event.getOffer().getPatientId()), WAITLIST_OFFER_EVENT, event.getOffer());
+    }
+
+    /**
+     * Keep idle connections (and the proxies in front of them) from timing out.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list ->
+                list.forEach(subscriber -> enqueue(subscriber, SseEmitter.event().comment("ping"))));
+    }
+
+    /**
+     * Evict subscribers whose current write has not returned within the write timeout.
+     */
+    @Scheduled(fixedDelayString = "${app.events.write-timeout-ms:5000}")
+    public void evictStalled() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : sending) {
+            long since = subscriber.sendingSince.get();
+            if (since > 0 && now - since > writeTimeoutMillis
+                    && subscriber.sendingSince.compareAndSet(since, EVICTED)) {
+                remove(subscriber);
+                synchronized (subscriber) {
+                    subscriber.queue.clear();
+                }
+                if (addDispatchThread() && !subscriber.sendingSince.compareAndSet(EVICTED, EVICTED_WITH_THREAD)) {
+                    // The write returned meanwhile and no longer needs a stand-in
+                    removeDispatchThread();
+                }
+            }
+        }
+    }
+
+    private void publish(String key, String name, Object data) {
+        List<Subscriber> streams = subscribers.get(key);
+        if (streams == null) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            enqueue(subscriber, SseEmitter.event().name(name).data(data));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        synchronized (subscriber) {
+            if (subscriber.queue.size() >= bufferSize) {
+                subscriber.queue.clear();
+                subscriber.queue.add(SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+            } else {
+                subscriber.queue.add(message);
+            }
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder message;
+            while ((message = poll(subscriber)) != null) {
+                long started = System.currentTimeMillis();
+                subscriber.sendingSince.set(started);
+                sending.add(subscriber);
+                try {
+                    subscriber.emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    finishSend(subscriber, started);
+                    remove(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+                if (!finishSend(subscriber, started)) {
+                    subscriber.emitter.complete();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (hasQueued(subscriber) && subscriber.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Returns false if the subscriber was evicted during this write, after giving back its extra thread.
+     */
+    private boolean finishSend(Subscriber subscriber, long started) {
+        sending.remove(subscriber);
+        if (subscriber.sendingSince.compareAndSet(started, 0)) {
+            return true;
+        }
+        if (subscriber.sendingSince.getAndSet(EVICTED_DONE) == EVICTED_WITH_THREAD) {
+            removeDispatchThread();
+        }
+        return false;
+    }
+
+    /**
+     * Grow the pool by one thread to stand in for a stalled write; false once the cap is reached.
+     */
+    private synchronized boolean addDispatchThread() {
+        int size = dispatcher.getCorePoolSize();
+        if (size - dispatchThreads >= maxStalledThreads) {
+            return false;
+        }
+        dispatcher.setMaximumPoolSize(size + 1);
+        dispatcher.setCorePoolSize(size + 1);
+        return true;
+    }
+
+    private synchronized void removeDispatchThread() {
+        int size = dispatcher.getCorePoolSize() - 1;
+        dispatcher.setCorePoolSize(size);
+        dispatcher.setMaximumPoolSize(size);
+    }
+
+    private SseEmitter.SseEventBuilder poll(Subscriber subscriber) {
+        synchronized (subscriber) {
+            return subscriber.queue.poll();
+        }
+    }
+
+    private boolean hasQueued(Subscriber subscriber) {
+        synchronized (subscriber) {
+            return !subscriber.queue.isEmpty();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (key, list) -> {
+            if (list.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static String keyOf(Role role, Long profileId) {
+        return role + ":" + profileId;
+    }
+
+    /**
+     * One open stream; its queue is guarded by synchronizing on the instance. sendingSince is the start
+     * of the write in progress and 0 between writes; once evicted it is EVICTED, EVICTED_WITH_THREAD while
+     * a stand-in thread was added for its write, and EVICTED_DONE after that write returned.
+     */
+    private static final class Subscriber {
+        private final String key;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>(2);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong sendingSince = new AtomicLong();
+
+        private Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+    }
+}
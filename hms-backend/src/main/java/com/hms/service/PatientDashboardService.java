@@ -0,0 +1,162 @@
+package com.hms.service;
+
+import com.hms.dto.AppointmentResponse;
+import com.hms.dto.PatientDashboardResponse;
+import com.hms.dto.PrescriptionResponse;
+import com.hms.dto.StatusCount;
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.PrescriptionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Patient Dashboard Service - assembles the patient dashboard in one call.
+ * <p>
+ * The patient is resolved once and each section is loaded concurrently on a small bounded pool.
+ * The whole dashboard shares one time budget: a section that fails, times out or finds the pool
+ * saturated is left out and named in the response, and the remaining sections are still returned.
+ * <p>
+ * Each section runs in a read-only transaction whose session applies the budget to every query as
+ * {@code jakarta.persistence.query.timeout}, so a section that is given up on also stops holding its
+ * connection. JDBC statement timeouts are whole seconds, so the budget is rounded down to whole seconds,
+ * with one second as the minimum.
+ * The pool is kept well below the connection pool size, so dashboards never starve other requests.
+ */
+@Service
+public class PatientDashboardService {
+
+    private static final List<AppointmentStatus> UPCOMING = List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+    private static final List<AppointmentStatus> PAYABLE = List.of(AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED);
+
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private AppointmentFlags appointmentFlags;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.dashboard.threads:3}")
+    private int threads;
+
+    @Value("${app.dashboard.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.budget-ms:800}")
+    private long budgetMillis;
+
+    @Value("${app.dashboard.section-size:5}")
+    private int sectionSize;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate sectionTransaction;
+    private int queryTimeoutMillis;
+
+    @PostConstruct
+    public void init() {
+        sectionTransaction = new TransactionTemplate(transactionManager);
+        sectionTransaction.setReadOnly(true);
+        queryTimeoutMillis = (int) Math.max(1, budgetMillis / 1000) * 1000;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PatientDashboardResponse getDashboard(String patientEmail) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        PageRequest section = PageRequest.of(0, sectionSize);
+
+        Future<List<AppointmentResponse>> upcoming = submit(() -> appointmentFlags.apply(appointmentRepository
+                .findPatientUpcoming(patientId, UPCOMING, LocalDateTime.now(), section)));
+        Future<List<PrescriptionResponse>> prescriptions = submit(() ->
+                prescriptionRepository.findPatientPage(patientId, section));
+        Future<List<AppointmentResponse>> unpaid = submit(() -> appointmentFlags.apply(appointmentRepository
+                .findPatientUnpaid(patientId, PAYABLE, section)));
+        Future<Map<AppointmentStatus, Long>> counts = submit(() -> countByStatus(patientId));
+        Future<Long> prescriptionCount = submit(() -> prescriptionRepository.countByPatientId(patientId));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        List<String> unavailable = new ArrayList<>();
+        return PatientDashboardResponse.builder()
+                .patientId(patientId)
+                .upcomingAppointments(await(upcoming, deadline, "upcomingAppointments", unavailable))
+                .recentPrescriptions(await(prescriptions, deadline, "recentPrescriptions", unavailable))
+                .outstandingPayments(await(unpaid, deadline, "outstandingPayments", unavailable))
+                .appointmentCounts(await(counts, deadline, "appointmentCounts", unavailable))
+                .prescriptionCount(await(prescriptionCount, deadline, "prescriptionCount", unavailable))
+                .unavailableSections(unavailable)
+                .build();
+    }
+
+    private Map<AppointmentStatus, Long> countByStatus(Long patientId) {
+        Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (StatusCount count : appointmentRepository.countByPatientIdGroupByStatus(patientId)) {
+            counts.put(count.getStatus(), count.getCount());
+        }
+        return counts;
+    }
+
+
+    /**
+     * Start loading a section; a saturated pool yields null, which marks the section unavailable.
+     */
+    private <T> Future<T> submit(Supplier<T> loader) {
+        try {
+            return executor.submit(() -> sectionTransaction.execute(status -> {
+                entityManager.setProperty("jakarta.persistence.query.timeout", queryTimeoutMillis);
+                return loader.get();
+            }));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T await(Future<T> future, long deadline, String section, List<String> unavailable) {
+        if (future != null) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // fall through: the section is reported as unavailable
+            }
+            future.cancel(true);
+        }
+        unavailable.add(section);
+        return null;
+    }
+}
@@ -3,11 +3,14 @@ package com.hms.service;
 import com.hms.dto.PatientResponse;
 import com.hms.entity.Patient;
 import com.hms.entity.User;
+import com.hms.event.PatientChangedEvent;
 import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.PatientRepository;
 import com.hms.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Patient Service - handles patient profile management.
@@ -19,26 +22,26 @@ public class PatientService {
     private PatientRepository patientRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get patient profile by email.
      */
     public PatientResponse getProfile(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Patient patient = patientRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found"));
+        Patient patient = getPatientEntityByEmail(email);
         return mapToResponse(patient);
     }
 
     /**
      * Update patient profile.
      */
+    @Transactional
     public PatientResponse updateProfile(String email, PatientResponse request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Patient patient = patientRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found"));
+        Patient patient = getPatientEntityByEmail(email);
+        User user = patient.getUser();
 
         if (request.getName() != null) user.setName(request.getName());
         if (request.getPhone() != null) user.setPhone(request.getPhone());
@@ -52,6 +55,8 @@ public class PatientService {
 
         userRepository.save(user);
         patient = patientRepository.save(patient);
+        actorService.evict(email);
+        eventPublisher.publishEvent(new PatientChangedEvent(patient.getId()));
         return mapToResponse(patient);
     }
 
@@ -59,9 +64,7 @@ public class PatientService {
      * Get internal Patient entity by user email (used by other services).
      */
     public Patient getPatientEntityByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return patientRepository.findByUserId(user.getId())
+        return patientRepository.findWithUserById(actorService.getPatientId(email))
                 .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found"));
     }
 
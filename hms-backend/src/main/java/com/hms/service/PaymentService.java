@@ -7,11 +7,13 @@ import com.hms.entity.Payment;
 import com.hms.entity.enums.AppointmentStatus;
 import com.hms.entity.enums.PaymentMethod;
 import com.hms.entity.enums.PaymentStatus;
+import com.hms.event.AppointmentEvent;
 import com.hms.exception.BadRequestException;
 import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.AppointmentRepository;
 import com.hms.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,13 +29,15 @@ public class PaymentService {
     private PaymentRepository paymentRepository;
     @Autowired
     private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Process a payment for an appointment.
      */
     @Transactional
     public PaymentResponse makePayment(PaymentRequest request) {
-        Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
+        Appointment appointment = appointmentRepository.findDetailById(request.getAppointmentId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with id: " + request.getAppointmentId()));
 
@@ -58,6 +62,9 @@ public class PaymentService {
                 .build();
 
         payment = paymentRepository.save(payment);
+        eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.PAYMENT_COMPLETED,
+                appointment.getId(), appointment.getDoctor().getId(), appointment.getPatient().getId(),
+                appointment.getAppointmentDateTime(), null, appointment.getStatus()));
         return mapToResponse(payment);
     }
 
@@ -65,10 +72,9 @@ public class PaymentService {
      * Get payment by appointment ID.
      */
     public PaymentResponse getPaymentByAppointment(Long appointmentId) {
-        Payment payment = paymentRepository.findByAppointmentId(appointmentId)
+        return paymentRepository.findResponseByAppointmentId(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Payment not found for appointment id: " + appointmentId));
-        return mapToResponse(payment);
     }
 
     private PaymentResponse mapToResponse(Payment payment) {
@@ -0,0 +1,152 @@
+package com.hms.service;
+
+import com.hms.dto.PrescriptionItemResponse;
+import com.hms.dto.PrescriptionResponse;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a prescription as a self-contained, printable HTML page.
+ * <p>
+ * {@link #contentKey} hashes exactly the fields the page is rendered from, plus a layout version,
+ * so two prescriptions with the same key always render to the same bytes.
+ */
+@Component
+public class PrescriptionDocumentRenderer {
+
+    /** Bump whenever the markup changes so documents cached under the old layout are not served. */
+    private static final int LAYOUT_VERSION = 1;
+
+    public static final String CONTENT_TYPE = "text/html;charset=UTF-8";
+    public static final String EXTENSION = ".html";
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("d MMM yyyy, HH:mm", Locale.ENGLISH);
+
+    private static final String STYLE = "body{font-family:Georgia,serif;color:#111;max-width:760px;margin:32px auto;padding:0 24px}"
+            + "header{border-bottom:2px solid #111;padding-bottom:12px;margin-bottom:20px}"
+            + "h1{font-size:22px;margin:0}h2{font-size:14px;text-transform:uppercase;letter-spacing:.05em;margin:20px 0 6px}"
+            + ".meta{display:flex;justify-content:space-between;font-size:14px}"
+            + "table{width:100%;border-collapse:collapse;font-size:14px}th,td{text-align:left;padding:6px 8px;border-bottom:1px solid #ccc}"
+            + "p{white-space:pre-line;margin:0;font-size:14px}footer{margin-top:48px;font-size:12px;color:#555}"
+            + "@media print{body{margin:0}}";
+
+    /**
+     * Hex SHA-256 of everything the document shows; used as its cache key and ETag.
+     */
+    public String contentKey(PrescriptionResponse prescription) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(LAYOUT_VERSION).array());
+        update(digest, String.valueOf(prescription.getId()));
+        update(digest, prescription.getDoctorName());
+        update(digest, prescription.getDoctorSpecialization());
+        update(digest, prescription.getPatientName());
+        update(digest, prescription.getDiagnosis());
+        update(digest, prescription.getMedications());
+        update(digest, prescription.getNotes());
+        update(digest, String.valueOf(prescription.getIssuedAt()));
+        update(digest, String.valueOf(prescription.getAppointmentDateTime()));
+        List<PrescriptionItemResponse> items = items(prescription);
+        update(digest, String.valueOf(items.size()));
+        for (PrescriptionItemResponse item : items) {
+            update(digest, item.getDrugName());
+            update(digest, item.getDose());
+            update(digest, item.getFrequency());
+            update(digest, String.valueOf(item.getDurationDays()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public byte[] render(PrescriptionResponse prescription) {
+        StringBuilder html = new StringBuilder(4096);
+        html.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>Prescription #")
+                .append(prescription.getId()).append("</title><style>").append(STYLE).append("</style></head><body>");
+
+        html.append("<header><h1>Dr. ").append(escape(prescription.getDoctorName())).append("</h1>")
+                .append("<div>").append(escape(prescription.getDoctorSpecialization())).append("</div></header>");
+        html.append("<div class=\"meta\"><div><strong>Patient:</strong> ").append(escape(prescription.getPatientName()))
+                .append("</div><div><strong>Date:</strong> ").append(format(prescription.getIssuedAt(), DATE))
+                .append("</div></div>");
+        html.append("<div class=\"meta\"><div><strong>Prescription:</strong> #").append(prescription.getId())
+                .append("</div><div><strong>Consultation:</strong> ")
+                .append(format(prescription.getAppointmentDateTime(), DATE_TIME)).append("</div></div>");
+
+        html.append("<h2>Diagnosis</h2><p>").append(escape(prescription.getDiagnosis())).append("</p>");
+        html.append("<h2>Medications</h2>");
+        List<PrescriptionItemResponse> items = items(prescription);
+        if (items.isEmpty()) {
+            html.append("<p>").append(escape(prescription.getMedications())).append("</p>");
+        } else {
+            html.append("<table><thead><tr><th>Drug</th><th>Dose</th><th>Frequency</th><th>Duration</th></tr></thead><tbody>");
+            for (PrescriptionItemResponse item : items) {
+                int days = item.getDurationDays() != null ? item.getDurationDays() : 0;
+                html.append("<tr><td>").append(escape(item.getDrugName()))
+                        .append("</td><td>").append(escape(item.getDose()))
+                        .append("</td><td>").append(escape(item.getFrequency()))
+                        .append("</td><td>").append(days).append(days == 1 ? " day" : " days").append("</td></tr>");
+            }
+            html.append("</tbody></table>");
+        }
+        if (prescription.getNotes() != null && !prescription.getNotes().isBlank()) {
+            html.append("<h2>Notes</h2><p>").append(escape(prescription.getNotes())).append("</p>");
+        }
+
+        html.append("<footer>Issued electronically on ").append(format(prescription.getIssuedAt(), DATE_TIME))
+                .append(". Valid without signature.</footer></body></html>");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<PrescriptionItemResponse> items(PrescriptionResponse prescription) {
+        return prescription.getItems() != null ? prescription.getItems() : List.of();
+    }
+
+    /**
+     * Length-prefixed, so adjacent fields can never run into each other.
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static String format(LocalDateTime time, DateTimeFormatter formatter) {
+        return time != null ? time.format(formatter) : "";
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.hms.service;
+
+import com.hms.dto.ActorInfo;
+import com.hms.dto.PrescriptionDocument;
+import com.hms.dto.PrescriptionResponse;
+import com.hms.entity.enums.Role;
+import com.hms.exception.ResourceNotFoundException;
+import com.hms.repository.PrescriptionItemRepository;
+import com.hms.repository.PrescriptionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Prescription Document Service - printable prescription documents, rendered once and cached on disk.
+ * <p>
+ * Issued prescriptions never change, so a document is stored under the hash of the content it shows
+ * and every later download is a file lookup. A new file is only rendered when something on the page
+ * changes (e.g. a name, or the layout version), and it is written to a temp file and moved into place,
+ * so readers never see a partly written document.
+ * <p>
+ * Documents whose content changed leave their old file behind, so the cache is capped in size: a hit
+ * refreshes the file's modification time, and a periodic sweep deletes the least recently used files
+ * until the cache is back under its limit. Files used within the idle grace period are never deleted,
+ * so a download that just looked up its file can still open it.
+ */
+@Service
+public class PrescriptionDocumentService {
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private PrescriptionItemRepository itemRepository;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private PrescriptionDocumentRenderer renderer;
+
+    @Value("${app.documents.cache-dir:document-cache}")
+    private String cacheDirectory;
+
+    @Value("${app.documents.cache-max-mb:512}")
+    private long cacheMaxMegabytes;
+
+    @Value("${app.documents.min-idle-ms:3600000}")
+    private long minIdleMillis;
+
+    private Path cacheDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        cacheDir = Files.createDirectories(Path.of(cacheDirectory)).toAbsolutePath();
+    }
+
+    /**
+     * The document of a prescription the user issued (doctor) or received (patient).
+     */
+    public PrescriptionDocument getDocument(String email, Long prescriptionId) {
+        ActorInfo actor = actorService.resolve(email);
+        Optional<PrescriptionResponse> found = actor.getRole() == Role.DOCTOR
+                ? prescriptionRepository.findResponseByIdAndDoctorId(prescriptionId, actor.getDoctorId())
+                : prescriptionRepository.findResponseByIdAndPatientId(prescriptionId, actor.getPatientId());
+        PrescriptionResponse prescription = found.orElseThrow(() -> new ResourceNotFoundException(
+                "Prescription not found with id: " + prescriptionId));
+        prescription.setItems(itemRepository.findResponsesByPrescriptionIdIn(List.of(prescriptionId)));
+
+        String key = renderer.contentKey(prescription);
+        Path path = cacheDir.resolve(key.substring(0, 2)).resolve(key + PrescriptionDocumentRenderer.EXTENSION);
+        try {
+            if (!touch(path)) {
+                store(path, renderer.render(prescription));
+            }
+            return new PrescriptionDocument(path, key, Files.size(path),
+                    "prescription-" + prescriptionId + PrescriptionDocumentRenderer.EXTENSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not cache prescription document " + prescriptionId, e);
+        }
+    }
+
+    /**
+     * Delete the least recently used documents while the cache is over its size limit, and temp files
+     * left behind by interrupted writes.
+     */
+    @Scheduled(initialDelayString = "${app.documents.sweep-ms:600000}",
+            fixedDelayString = "${app.documents.sweep-ms:600000}")
+    public void evict() {
+        long idleBefore = System.currentTimeMillis() - minIdleMillis;
+        long limit = cacheMaxMegabytes * 1024 * 1024;
+        List<CachedFile> documents = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> files = Files.walk(cacheDir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                long used = attributes.lastModifiedTime().toMillis();
+                if (!file.getFileName().toString().endsWith(PrescriptionDocumentRenderer.EXTENSION)) {
+                    if (used < idleBefore) {
+                        Files.deleteIfExists(file);
+                    }
+                    continue;
+                }
+                documents.add(new CachedFile(file, attributes.size(), used));
+                total += attributes.size();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Could not sweep document cache " + cacheDir, e);
+        }
+        if (total <= limit) {
+            return;
+        }
+        documents.sort(Comparator.comparingLong(CachedFile::used));
+        for (CachedFile document : documents) {
+            if (total <= limit || document.used() >= idleBefore) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(document.path());
+                total -= document.size();
+            } catch (IOException e) {
+                // Left for the next sweep
+            }
+        }
+    }
+
+    /**
+     * Mark a cached document as recently used, writing at most once a minute per file.
+     * Returns false if the document is not cached.
+     */
+    private static boolean touch(Path path) throws IOException {
+        long now = System.currentTimeMillis();
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() < now - 60_000) {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(now));
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Publish a rendered document atomically. Two requests rendering the same key write identical
+     * bytes, so whichever move lands last is as good as the first.
+     */
+    private static void store(Path path, byte[] content) throws IOException {
+        Path dir = Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private record CachedFile(Path path, long size, long used) {
+    }
+}
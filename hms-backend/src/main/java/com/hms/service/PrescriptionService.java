@@ -1,17 +1,31 @@
 package com.hms.service;
 
+import com.hms.dto.ActiveMedication;
+import com.hms.dto.CursorPage;
+import com.hms.dto.DrugInteractionWarning;
+import com.hms.dto.DrugSuggestion;
+import com.hms.dto.PageCursor;
+import com.hms.dto.PrescriptionItemRequest;
+import com.hms.dto.PrescriptionItemResponse;
 import com.hms.dto.PrescriptionRequest;
 import com.hms.dto.PrescriptionResponse;
 import com.hms.entity.*;
 import com.hms.entity.enums.AppointmentStatus;
+import com.hms.event.AppointmentEvent;
 import com.hms.exception.BadRequestException;
+import com.hms.exception.ConflictException;
 import com.hms.exception.ResourceNotFoundException;
 import com.hms.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -20,14 +34,26 @@ import java.util.stream.Collectors;
 @Service
 public class PrescriptionService {
 
+    /** Longest duration a prescription item may have; older prescriptions cannot still be active. */
+    private static final int MAX_DURATION_DAYS = 365;
+
     @Autowired
     private PrescriptionRepository prescriptionRepository;
     @Autowired
     private AppointmentRepository appointmentRepository;
     @Autowired
-    private DoctorService doctorService;
+    private ActorService actorService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PrescriptionItemRepository itemRepository;
     @Autowired
-    private PatientService patientService;
+    private DrugCatalog drugCatalog;
+    @Autowired
+    private DrugInteractionChecker interactionChecker;
+
+    @Value("${app.drugs.require-catalog-match:false}")
+    private boolean requireCatalogMatch;
 
     /**
      * Create a prescription (doctor action).
@@ -35,14 +61,14 @@ public class PrescriptionService {
      */
     @Transactional
     public PrescriptionResponse createPrescription(String doctorEmail, PrescriptionRequest request) {
-        Doctor doctor = doctorService.getDoctorEntityByEmail(doctorEmail);
+        Long doctorId = actorService.getDoctorId(doctorEmail);
 
-        Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
+        Appointment appointment = appointmentRepository.findDetailById(request.getAppointmentId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with id: " + request.getAppointmentId()));
 
         // Verify the doctor owns this appointment
-        if (!appointment.getDoctor().getId().equals(doctor.getId())) {
+        if (!appointment.getDoctor().getId().equals(doctorId)) {
             throw new BadRequestException("You can only create prescriptions for your own appointments");
         }
 
@@ -58,58 +84,198 @@ public class PrescriptionService {
             throw new BadRequestException("Prescription already exists for this appointment");
         }
 
+        List<PrescriptionItem> items = toItems(request.getItems());
+        String medications = items.isEmpty() ? request.getMedications() : describe(items);
+        if (medications == null || medications.isBlank()) {
+            throw new BadRequestException("Medications are required");
+        }
+        List<DrugInteractionWarning> warnings = checkInteractions(appointment.getPatient().getId(), items);
+
         Prescription prescription = Prescription.builder()
                 .appointment(appointment)
-                .doctor(doctor)
+                .doctor(appointment.getDoctor())
                 .patient(appointment.getPatient())
                 .diagnosis(request.getDiagnosis())
-                .medications(request.getMedications())
+                .medications(medications)
                 .notes(request.getNotes())
                 .build();
 
-        // Auto-complete the appointment when prescription is issued
+        // Auto-complete the appointment when prescription is issued, unless it changed since it was read
         if (appointment.getStatus() == AppointmentStatus.CONFIRMED) {
-            appointment.setStatus(AppointmentStatus.COMPLETED);
-            appointmentRepository.save(appointment);
+            if (appointmentRepository.transitionStatus(appointment.getId(), doctorId, AppointmentStatus.CONFIRMED,
+                    AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED.holdsSlot()) == 0) {
+                throw new ConflictException("Appointment " + appointment.getId()
+                        + " changed while the prescription was being issued");
+            }
+            eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.STATUS_CHANGED,
+                    appointment.getId(), doctorId, appointment.getPatient().getId(),
+                    appointment.getAppointmentDateTime(), AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED));
         }
 
         prescription = prescriptionRepository.save(prescription);
-        return mapToResponse(prescription);
+        for (PrescriptionItem item : items) {
+            item.setPrescription(prescription);
+        }
+        itemRepository.saveAll(items);
+        eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.PRESCRIPTION_ISSUED,
+                appointment.getId(), doctorId, appointment.getPatient().getId(),
+                appointment.getAppointmentDateTime(), null, AppointmentStatus.COMPLETED));
+        PrescriptionResponse response = mapToResponse(prescription, items);
+        response.setWarnings(warnings);
+        return response;
     }
 
     /**
      * Get prescription by appointment ID.
      */
     public PrescriptionResponse getPrescriptionByAppointment(Long appointmentId) {
-        Prescription prescription = prescriptionRepository.findByAppointmentId(appointmentId)
+        PrescriptionResponse response = prescriptionRepository.findResponseByAppointmentId(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Prescription not found for appointment id: " + appointmentId));
-        return mapToResponse(prescription);
+        withItems(List.of(response));
+        return response;
     }
 
     /**
      * Get all prescriptions for a patient.
      */
     public List<PrescriptionResponse> getPatientPrescriptions(String patientEmail) {
-        Patient patient = patientService.getPatientEntityByEmail(patientEmail);
-        return prescriptionRepository.findByPatientIdOrderByIssuedAtDesc(patient.getId())
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        Long patientId = actorService.getPatientId(patientEmail);
+        return withItems(prescriptionRepository.findResponsesByPatientId(patientId));
     }
 
     /**
      * Get all prescriptions issued by a doctor.
      */
     public List<PrescriptionResponse> getDoctorPrescriptions(String doctorEmail) {
-        Doctor doctor = doctorService.getDoctorEntityByEmail(doctorEmail);
-        return prescriptionRepository.findByDoctorIdOrderByIssuedAtDesc(doctor.getId())
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        return withItems(prescriptionRepository.findResponsesByDoctorId(doctorId));
+    }
+
+    /**
+     * Get one page of a patient's prescriptions, newest first.
+     */
+    public CursorPage<PrescriptionResponse> getPatientPrescriptionsPage(
+            String patientEmail, String cursor, Integer limit) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<PrescriptionResponse> rows;
+        if (cursor == null) {
+            rows = prescriptionRepository.findPatientPage(patientId, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = prescriptionRepository.findPatientPageBefore(
+                    patientId, after.getTimestamp(), after.getId(), pageable);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Get one page of a doctor's issued prescriptions, newest first.
+     */
+    public CursorPage<PrescriptionResponse> getDoctorPrescriptionsPage(
+            String doctorEmail, String cursor, Integer limit) {
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<PrescriptionResponse> rows;
+        if (cursor == null) {
+            rows = prescriptionRepository.findDoctorPage(doctorId, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = prescriptionRepository.findDoctorPageBefore(
+                    doctorId, after.getTimestamp(), after.getId(), pageable);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    private CursorPage<PrescriptionResponse> toPage(List<PrescriptionResponse> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(withItems(rows), null);
+        }
+        List<PrescriptionResponse> page = withItems(rows.subList(0, pageSize));
+        PrescriptionResponse last = page.get(pageSize - 1);
+        String nextCursor = new PageCursor(last.getIssuedAt(), last.getId()).encode();
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    /**
+     * Validate the requested medication lines, using the catalog spelling for known drugs.
+     */
+    private List<PrescriptionItem> toItems(List<PrescriptionItemRequest> requested) {
+        if (requested == null) {
+            return List.of();
+        }
+        // Catalog drugs are compared by their canonical name, so two names of the same drug are a duplicate
+        Map<String, String> seen = new HashMap<>();
+        List<PrescriptionItem> items = new ArrayList<>(requested.size());
+        for (PrescriptionItemRequest line : requested) {
+            Optional<DrugSuggestion> known = drugCatalog.find(line.getDrugName());
+            if (known.isEmpty() && requireCatalogMatch) {
+                throw new BadRequestException("Unknown drug: " + line.getDrugName());
+            }
+            String drugName = known.map(DrugSuggestion::getName).orElse(line.getDrugName().trim());
+            String drugKey = (known.isPresent() ? drugCatalog.nameOf(drugCatalog.canonicalIdOf(drugName)) : drugName)
+                    .toLowerCase(Locale.ROOT);
+            String previous = seen.putIfAbsent(drugKey, drugName);
+            if (previous != null) {
+                throw new BadRequestException(previous.equals(drugName)
+                        ? "Duplicate medication: " + drugName
+                        : "Duplicate medication: " + drugName + " is the same drug as " + previous);
+            }
+            items.add(PrescriptionItem.builder()
+                    .drugName(drugName)
+                    .dose(line.getDose().trim())
+                    .frequency(line.getFrequency().trim())
+                    .durationDays(line.getDurationDays())
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * Interactions among the new items and between them and the patient's still active medications.
+     * Warnings are reported to the prescriber; they do not block issuing.
+     */
+    private List<DrugInteractionWarning> checkInteractions(Long patientId, List<PrescriptionItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> activeDrugs = itemRepository.findIssuedToPatientSince(patientId, now.minusDays(MAX_DURATION_DAYS))
                 .stream()
-                .map(this::mapToResponse)
+                .filter(medication -> medication.isActiveAt(now))
+                .map(ActiveMedication::getDrugName)
                 .collect(Collectors.toList());
+        List<String> newDrugs = items.stream().map(PrescriptionItem::getDrugName).collect(Collectors.toList());
+        return interactionChecker.check(newDrugs, activeDrugs);
+    }
+
+    /**
+     * Plain-text medications, one line per item, kept for readers of the free-text column.
+     */
+    private static String describe(List<PrescriptionItem> items) {
+        return items.stream()
+                .map(item -> item.getDrugName() + " " + item.getDose() + " - " + item.getFrequency()
+                        + " for " + item.getDurationDays() + (item.getDurationDays() == 1 ? " day" : " days"))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private List<PrescriptionResponse> withItems(List<PrescriptionResponse> responses) {
+        if (responses.isEmpty()) {
+            return responses;
+        }
+        List<Long> ids = responses.stream().map(PrescriptionResponse::getId).collect(Collectors.toList());
+        Map<Long, List<PrescriptionItemResponse>> byPrescription = itemRepository.findResponsesByPrescriptionIdIn(ids)
+                .stream().collect(Collectors.groupingBy(PrescriptionItemResponse::getPrescriptionId));
+        for (PrescriptionResponse response : responses) {
+            response.setItems(byPrescription.getOrDefault(response.getId(), List.of()));
+        }
+        return responses;
     }
 
-    private PrescriptionResponse mapToResponse(Prescription prescription) {
+    private PrescriptionResponse mapToResponse(Prescription prescription, List<PrescriptionItem> items) {
         return PrescriptionResponse.builder()
                 .id(prescription.getId())
                 .appointmentId(prescription.getAppointment().getId())
@@ -121,6 +287,10 @@ public class PrescriptionService {
                 .notes(prescription.getNotes())
                 .issuedAt(prescription.getIssuedAt())
                 .appointmentDateTime(prescription.getAppointment().getAppointmentDateTime())
+                .items(items.stream()
+                        .map(item -> new PrescriptionItemResponse(prescription.getId(), item.getDrugName(),
+                                item.getDose(), item.getFrequency(), item.getDurationDays()))
+                        .collect(Collectors.toList()))
                 .build();
     }
 }
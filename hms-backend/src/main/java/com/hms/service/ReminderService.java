@@ -0,0 +1,184 @@
+package com.hms.service;
+
+import com.hms.dto.Reminder;
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.event.AppointmentEvent;
+import com.hms.event.RemindersUndeliveredEvent;
+import com.hms.notification.ReminderDispatcher;
+import com.hms.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reminder Service - sends a reminder a fixed number of hours before each upcoming appointment.
+ * <p>
+ * Pending reminders live in an in-memory timing wheel with one-minute ticks. The wheel is filled lazily,
+ * one window of reminder times at a time, from the database, and kept current between loads from
+ * committed booking and status events. A reminder whose time has already passed, e.g. for a booking made
+ * less than the lead time ahead or one that fell due while no node was running, is sent on the next tick.
+ * <p>
+ * Before a due reminder is handed to the dispatcher it is claimed in the database: the claim sets the
+ * appointment's reminder_sent_at, and only succeeds while the appointment is still upcoming, still in a
+ * reminded status and not claimed by another node, so each reminder is sent once across all instances.
+ * Reminders the dispatcher could not deliver are released and tried again after a delay. A node that dies
+ * with claimed reminders still queued does not send them.
+ */
+@Service
+public class ReminderService {
+
+    private static final Set<AppointmentStatus> REMINDED = EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+    private static final int[] WHEEL_SIZES = {60, 24};
+    private static final int LOOKUP_CHUNK = 500;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ReminderDispatcher dispatcher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reminders.lead-hours:24}")
+    private long leadHours;
+
+    @Value("${app.reminders.tick-ms:60000}")
+    private long tickMillis;
+
+    @Value("${app.reminders.window-hours:6}")
+    private long windowHours;
+
+    @Value("${app.reminders.redeliver-delay-ms:300000}")
+    private long redeliverDelayMillis;
+
+    private TransactionTemplate transactionTemplate;
+    private TimingWheel<Long> wheel;
+
+    /** Reminder times before this are in the wheel. */
+    private long loadedUntil;
+
+    /** Upper end of the window being loaded; bookings below it are added by the event listener. */
+    private long loadingUntil;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        long now = System.currentTimeMillis();
+        wheel = new TimingWheel<>(tickMillis, now, WHEEL_SIZES);
+        // Start one lead time back, so reminders that fell due while no node was running are picked up
+        long earliest = now - leadHours * 3_600_000L;
+        loadedUntil = earliest;
+        loadingUntil = earliest;
+    }
+
+    /**
+     * Fire the reminders that became due and load the next window when the loaded one runs low.
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.tick-ms:60000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<Long> due;
+        long from;
+        long to;
+        synchronized (this) {
+            due = wheel.advanceTo(now);
+            from = loadedUntil;
+            to = Math.min(now + windowHours * 3_600_000L, wheel.horizonMillis() + 1);
+            if (to - from < windowHours * 1_800_000L) {
+                to = from;
+            }
+            loadingUntil = Math.max(loadingUntil, to);
+        }
+        send(due);
+        if (to > from) {
+            load(from, to);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        long remindAt = toMillis(event.getAppointmentDateTime().minusHours(leadHours));
+        synchronized (this) {
+            if (!REMINDED.contains(event.getStatus())) {
+                wheel.cancel(event.getAppointmentId());
+            } else if (event.getType() == AppointmentEvent.Type.BOOKED && remindAt < loadingUntil) {
+                wheel.schedule(event.getAppointmentId(), remindAt, event.getAppointmentId());
+            }
+        }
+    }
+
+    private void load(long from, long to) {
+        List<Reminder> upcoming = appointmentRepository.findRemindersBetween(
+                toDateTime(from).plusHours(leadHours), toDateTime(to).plusHours(leadHours), REMINDED);
+        synchronized (this) {
+            for (Reminder reminder : upcoming) {
+                long remindAt = toMillis(reminder.getAppointmentDateTime().minusHours(leadHours));
+                wheel.schedule(reminder.getAppointmentId(), remindAt, reminder.getAppointmentId());
+            }
+            loadedUntil = to;
+        }
+    }
+
+    /**
+     * Release reminders the dispatcher gave up on and schedule them again; the claim is retaken before
+     * the retry, so by then another node may send them instead.
+     */
+    @EventListener
+    public void onRemindersUndelivered(RemindersUndeliveredEvent event) {
+        List<Long> ids = event.getReminders().stream().map(Reminder::getAppointmentId).toList();
+        transactionTemplate.executeWithoutResult(status -> appointmentRepository.releaseReminders(ids));
+        long retryAt = System.currentTimeMillis() + redeliverDelayMillis;
+        synchronized (this) {
+            for (Long id : ids) {
+                wheel.schedule(id, retryAt, id);
+            }
+        }
+    }
+
+    private void send(List<Long> due) {
+        for (int i = 0; i < due.size(); i += LOOKUP_CHUNK) {
+            List<Long> ids = due.subList(i, Math.min(i + LOOKUP_CHUNK, due.size()));
+            List<Reminder> claimed = transactionTemplate.execute(status -> claim(ids));
+            if (!claimed.isEmpty()) {
+                dispatcher.dispatch(claimed);
+            }
+        }
+    }
+
+    /**
+     * Claim the given reminders and return the ones this node won, re-read so a cancelled appointment
+     * is never announced.
+     */
+    private List<Reminder> claim(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (appointmentRepository.claimReminder(id, now, REMINDED) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed.isEmpty() ? List.of() : appointmentRepository.findRemindersByIdIn(claimed, REMINDED);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
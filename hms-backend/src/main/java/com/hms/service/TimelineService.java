@@ -0,0 +1,226 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.dto.*;
+import com.hms.exception.BadRequestException;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.PaymentRepository;
+import com.hms.repository.PrescriptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Timeline Service - a patient's appointments, prescriptions and payments as one chronological stream.
+ * <p>
+ * Each kind is read newest first through its own keyset-paginated per-patient query, a page at a time,
+ * and the three sorted sources are k-way merged as they are consumed. The result is written as NDJSON,
+ * one entry per line, so only a page per source is ever held in memory however long the history is.
+ * When a limit cuts the stream short, the last line carries the cursor to continue from.
+ */
+@Service
+public class TimelineService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getOccurredAt).reversed()
+            .thenComparing(TimelineEntry::getType)
+            .thenComparing(TimelineEntry::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.timeline.fetch-size:200}")
+    private int fetchSize;
+
+    /**
+     * Stream the logged-in patient's own timeline.
+     */
+    public StreamingResponseBody openPatientTimeline(String patientEmail, String cursor, Integer limit) {
+        return open(actorService.getPatientId(patientEmail), cursor, limit);
+    }
+
+    /**
+     * Stream the timeline of a patient the doctor has had an appointment with.
+     */
+    public StreamingResponseBody openTimelineForDoctor(String doctorEmail, Long patientId, String cursor, Integer limit) {
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        if (!appointmentRepository.existsByDoctorIdAndPatientId(doctorId, patientId)) {
+            throw new BadRequestException("You can only view the timeline of your own patients");
+        }
+        return open(patientId, cursor, limit);
+    }
+
+    /**
+     * Validate the request up front, so errors are reported before any of the body is written.
+     * Without a limit the whole history is streamed.
+     */
+    private StreamingResponseBody open(Long patientId, String cursor, Integer limit) {
+        TimelineCursor after = cursor != null ? TimelineCursor.decode(cursor) : null;
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return out -> write(patientId, after, limit != null ? limit : Long.MAX_VALUE, out);
+    }
+
+    private void write(Long patientId, TimelineCursor after, long limit, OutputStream out) throws IOException {
+        PriorityQueue<Source<?>> heads = new PriorityQueue<>(
+                (a, b) -> NEWEST_FIRST.compare(a.peek(), b.peek()));
+        for (Source<?> source : sources(patientId, after)) {
+            if (source.peek() != null) {
+                heads.add(source);
+            }
+        }
+        long written = 0;
+        TimelineEntry last = null;
+        while (!heads.isEmpty() && written < limit) {
+            Source<?> source = heads.poll();
+            last = source.next();
+            writeLine(out, last);
+            written++;
+            if (source.peek() != null) {
+                heads.add(source);
+            }
+        }
+        if (!heads.isEmpty() && last != null) {
+            writeLine(out, Map.of("nextCursor", TimelineCursor.of(last).encode()));
+        }
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    private List<Source<?>> sources(Long patientId, TimelineCursor after) {
+        return List.of(
+                new Source<>(TimelineEntry.Type.APPOINTMENT, after,
+                        page -> appointmentRepository.findPatientPage(patientId, page),
+                        (position, page) -> appointmentRepository.findPatientPageBefore(
+                                patientId, position.timestamp(), position.id(), page),
+                        TimelineService::fromAppointment),
+                new Source<>(TimelineEntry.Type.PRESCRIPTION, after,
+                        page -> prescriptionRepository.findPatientPage(patientId, page),
+                        (position, page) -> prescriptionRepository.findPatientPageBefore(
+                                patientId, position.timestamp(), position.id(), page),
+                        TimelineService::fromPrescription),
+                new Source<>(TimelineEntry.Type.PAYMENT, after,
+                        page -> paymentRepository.findPatientPage(patientId, page),
+                        (position, page) -> paymentRepository.findPatientPageBefore(
+                                patientId, position.timestamp(), position.id(), page),
+                        TimelineService::fromPayment));
+    }
+
+    private static TimelineEntry fromAppointment(AppointmentResponse appointment) {
+        return TimelineEntry.builder()
+                .type(TimelineEntry.Type.APPOINTMENT)
+                .id(appointment.getId())
+                .occurredAt(appointment.getAppointmentDateTime())
+                .appointmentId(appointment.getId())
+                .doctorName(appointment.getDoctorName())
+                .summary(appointment.getReason() != null ? appointment.getReason() : appointment.getDoctorSpecialization())
+                .status(appointment.getStatus().name())
+                .build();
+    }
+
+    private static TimelineEntry fromPrescription(PrescriptionResponse prescription) {
+        return TimelineEntry.builder()
+                .type(TimelineEntry.Type.PRESCRIPTION)
+                .id(prescription.getId())
+                .occurredAt(prescription.getIssuedAt())
+                .appointmentId(prescription.getAppointmentId())
+                .doctorName(prescription.getDoctorName())
+                .summary(prescription.getDiagnosis())
+                .build();
+    }
+
+    private static TimelineEntry fromPayment(PaymentResponse payment) {
+        return TimelineEntry.builder()
+                .type(TimelineEntry.Type.PAYMENT)
+                .id(payment.getId())
+                .occurredAt(payment.getPaidAt())
+                .appointmentId(payment.getAppointmentId())
+                .doctorName(payment.getDoctorName())
+                .summary(payment.getPaymentMethod().name())
+                .status(payment.getStatus().name())
+                .amount(payment.getAmount())
+                .build();
+    }
+
+    /**
+     * Keyset position within one source: rows strictly before (timestamp, id), newest first.
+     */
+    private record Position(LocalDateTime timestamp, Long id) {
+    }
+
+    /**
+     * One sorted source of the merge, fetched lazily a page at a time.
+     */
+    private final class Source<R> {
+        private final Function<Pageable, List<R>> firstPage;
+        private final BiFunction<Position, Pageable, List<R>> pageBefore;
+        private final Function<R, TimelineEntry> mapper;
+        private final Deque<TimelineEntry> buffer = new ArrayDeque<>();
+        private Position position;
+        private boolean exhausted;
+
+        private Source(TimelineEntry.Type type, TimelineCursor after, Function<Pageable, List<R>> firstPage,
+                       BiFunction<Position, Pageable, List<R>> pageBefore, Function<R, TimelineEntry> mapper) {
+            this.firstPage = firstPage;
+            this.pageBefore = pageBefore;
+            this.mapper = mapper;
+            if (after != null) {
+                // Entries at the cursor's instant sort by type, then id: later types still have all ids
+                // left, the cursor's own type has the ids below it, and earlier types have none.
+                int order = type.compareTo(after.getType());
+                long idBound = order > 0 ? Long.MAX_VALUE : order == 0 ? after.getId() : Long.MIN_VALUE;
+                this.position = new Position(after.getTimestamp(), idBound);
+            }
+        }
+
+        TimelineEntry peek() {
+            if (buffer.isEmpty() && !exhausted) {
+                fill();
+            }
+            return buffer.peek();
+        }
+
+        TimelineEntry next() {
+            peek();
+            return buffer.poll();
+        }
+
+        private void fill() {
+            Pageable page = PageRequest.of(0, fetchSize);
+            List<R> rows = position == null ? firstPage.apply(page) : pageBefore.apply(position, page);
+            exhausted = rows.size() < fetchSize;
+            for (R row : rows) {
+                buffer.add(mapper.apply(row));
+            }
+            if (!rows.isEmpty()) {
+                TimelineEntry last = buffer.peekLast();
+                position = new Position(last.getOccurredAt(), last.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.hms.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by id (Varghese and Lauck).
+ * <p>
+ * Level 0 has one bucket per tick; every higher level has buckets as wide as a full turn of the level below.
+ * An entry sits in the lowest level that reaches its due tick and is cascaded one level down when its
+ * bucket comes round, so scheduling, cancelling and advancing are O(1) per entry regardless of how many
+ * entries are pending. Not thread-safe; callers synchronize.
+ */
+class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int[] sizes;
+    private final long[] ticksPerBucket;
+    private final List<List<List<Entry<T>>>> levels = new ArrayList<>();
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long startMillis, int... sizes) {
+        this.tickMillis = tickMillis;
+        this.sizes = sizes;
+        this.ticksPerBucket = new long[sizes.length];
+        long ticks = 1;
+        for (int level = 0; level < sizes.length; level++) {
+            ticksPerBucket[level] = ticks;
+            ticks *= sizes[level];
+            List<List<Entry<T>>> buckets = new ArrayList<>(sizes[level]);
+            for (int i = 0; i < sizes[level]; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Latest time that can currently be scheduled.
+     */
+    long horizonMillis() {
+        int top = sizes.length - 1;
+        return ((currentTick / ticksPerBucket[top]) + sizes[top]) * ticksPerBucket[top] * tickMillis - 1;
+    }
+
+    /**
+     * Schedule (or reschedule) an item; returns false if its due time lies beyond the horizon.
+     * Items already due fire on the next advance.
+     */
+    boolean schedule(long id, long dueMillis, T item) {
+        if (dueMillis > horizonMillis()) {
+            return false;
+        }
+        cancel(id);
+        Entry<T> entry = new Entry<>(id, Math.max(dueMillis / tickMillis, currentTick + 1), item);
+        entries.put(id, entry);
+        place(entry);
+        return true;
+    }
+
+    boolean cancel(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Move the wheel forward to the given time and return the items that became due, in due order.
+     */
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = sizes.length - 1; level > 0; level--) {
+                if (currentTick % ticksPerBucket[level] == 0) {
+                    List<Entry<T>> bucket = bucketOf(level, currentTick);
+                    List<Entry<T>> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    cascading.forEach(this::place);
+                }
+            }
+            List<Entry<T>> bucket = bucketOf(0, currentTick);
+            for (Entry<T> entry : bucket) {
+                if (!entry.cancelled && entries.remove(entry.id, entry)) {
+                    due.add(entry.item);
+                }
+            }
+            bucket.clear();
+        }
+        return due;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.cancelled) {
+            return;
+        }
+        long dueTick = Math.max(entry.dueTick, currentTick);
+        for (int level = 0; level < sizes.length; level++) {
+            if (dueTick / ticksPerBucket[level] - currentTick / ticksPerBucket[level] < sizes[level]) {
+                bucketOf(level, dueTick).add(entry);
+                return;
+            }
+        }
+        bucketOf(sizes.length - 1, dueTick).add(entry);
+    }
+
+    private List<Entry<T>> bucketOf(int level, long tick) {
+        return levels.get(level).get((int) ((tick / ticksPerBucket[level]) % sizes[level]));
+    }
+
+    private static final class Entry<T> {
+        private final long id;
+        private final long dueTick;
+        private final T item;
+        private boolean cancelled;
+
+        private Entry(long id, long dueTick, T item) {
+            this.id = id;
+            this.dueTick = dueTick;
+            this.item = item;
+        }
+    }
+}
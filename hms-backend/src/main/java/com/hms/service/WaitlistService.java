@@ -0,0 +1,360 @@
+package com.hms.service;
+
+import com.hms.dto.WaitlistRequest;
+import com.hms.dto.WaitlistResponse;
+import com.hms.entity.WaitlistEntry;
+import com.hms.entity.enums.AppointmentStatus;
+import com.hms.entity.enums.WaitlistStatus;
+import com.hms.event.AppointmentEvent;
+import com.hms.event.WaitlistOfferEvent;
+import com.hms.exception.BadRequestException;
+import com.hms.exception.ResourceNotFoundException;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.PatientRepository;
+import com.hms.repository.WaitlistEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waitlist Service - offers freed appointment slots to waiting patients.
+ * <p>
+ * Waiting entries are persisted and mirrored in an in-memory priority queue per doctor, rebuilt on startup.
+ * When an upcoming appointment is cancelled or rejected, the highest-priority entry whose date range covers
+ * the slot is offered it as a slot hold that the patient books with POST /api/appointments. Offers that lapse
+ * go back to the queue and the slot moves on to the next patient. The doctor sets an entry's priority
+ * (e.g. for urgent cases); entries of equal priority are offered in order of joining. Matching runs on a single background
+ * thread, so status updates never wait for it. Patients are told about an offer on their event stream.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Comparator<Waiting> BY_PRIORITY = Comparator
+            .comparing(Waiting::priority, Comparator.reverseOrder())
+            .thenComparing(Waiting::createdAt)
+            .thenComparing(Waiting::id);
+
+    private static final Set<WaitlistStatus> ACTIVE = EnumSet.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ActorService actorService;
+    @Autowired
+    private DoctorSlotIndex slotIndex;
+    @Autowired
+    private DoctorScheduleService scheduleService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.waitlist.offer-ttl-ms:900000}")
+    private long offerTtlMillis;
+
+    @Value("${app.waitlist.max-range-days:90}")
+    private int maxRangeDays;
+
+    /** Waiting entries per doctor in offer order; guarded by synchronizing on this service. */
+    private final Map<Long, NavigableSet<Waiting>> queues = new HashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService matcher;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        matcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-matcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdownNow();
+    }
+
+    /**
+     * Rebuild the queues. Holds do not survive a restart, so outstanding offers go back to waiting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (WaitlistResponse entry : waitlistRepository.findResponsesByStatusIn(ACTIVE)) {
+            if (entry.getStatus() == WaitlistStatus.OFFERED
+                    && !changeStatus(entry.getId(), WaitlistStatus.OFFERED, WaitlistStatus.WAITING)) {
+                continue;
+            }
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Join a doctor's waitlist for a date range (patient action).
+     */
+    @Transactional
+    public WaitlistResponse join(String patientEmail, WaitlistRequest request) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        if (!doctorRepository.existsById(request.getDoctorId())) {
+            throw new ResourceNotFoundException("Doctor not found with id: " + request.getDoctorId());
+        }
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new BadRequestException("To date must not be before from date");
+        }
+        if (request.getToDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Waitlist dates must not be in the past");
+        }
+        if (ChronoUnit.DAYS.between(request.getFromDate(), request.getToDate()) >= maxRangeDays) {
+            throw new BadRequestException("Waitlist range must be at most " + maxRangeDays + " days");
+        }
+        if (waitlistRepository.existsByPatientIdAndDoctorIdAndStatusIn(patientId, request.getDoctorId(), ACTIVE)) {
+            throw new BadRequestException("You are already on this doctor's waitlist");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .doctor(doctorRepository.getReferenceById(request.getDoctorId()))
+                .patient(patientRepository.getReferenceById(patientId))
+                .fromDate(request.getFromDate())
+                .toDate(request.getToDate())
+                .build();
+        entry = waitlistRepository.saveAndFlush(entry);
+
+        WaitlistResponse response = waitlistRepository.findResponseById(entry.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(response);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Get the patient's waitlist entries, newest first.
+     */
+    public List<WaitlistResponse> getPatientEntries(String patientEmail) {
+        return waitlistRepository.findResponsesByPatientId(actorService.getPatientId(patientEmail));
+    }
+
+    /**
+     * Get the doctor's active waitlist entries in offer order.
+     */
+    public List<WaitlistResponse> getDoctorEntries(String doctorEmail) {
+        return waitlistRepository.findResponsesByDoctorIdAndStatusIn(actorService.getDoctorId(doctorEmail), ACTIVE);
+    }
+
+    /**
+     * Change the priority of an entry on the doctor's waitlist (doctor action). A waiting entry moves to
+     * its new place in the queue; an offered one keeps its offer and is re-queued with the new priority
+     * if the offer lapses.
+     */
+    @Transactional
+    public WaitlistResponse setPriority(String doctorEmail, Long entryId, Integer priority) {
+        Long doctorId = actorService.getDoctorId(doctorEmail);
+        if (waitlistRepository.updatePriority(entryId, doctorId, priority, ACTIVE) == 0) {
+            WaitlistResponse entry = waitlistRepository.findResponseById(entryId)
+                    .filter(found -> found.getDoctorId().equals(doctorId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+            throw new BadRequestException("Waitlist entry is no longer active (" + entry.getStatus() + ")");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reprioritize(doctorId, entryId, priority);
+            }
+        });
+        return waitlistRepository.findResponseById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+    }
+
+    /**
+     * Leave a waitlist (patient action). A slot currently offered is passed on to the next patient.
+     */
+    @Transactional
+    public void cancel(String patientEmail, Long entryId) {
+        Long patientId = actorService.getPatientId(patientEmail);
+        WaitlistResponse entry = waitlistRepository.findResponseById(entryId)
+                .filter(found -> found.getPatientId().equals(patientId))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+        if (!ACTIVE.contains(entry.getStatus())
+                || waitlistRepository.updateOffer(entryId, entry.getStatus(), WaitlistStatus.CANCELLED,
+                entry.getOfferedSlot(), null, null) == 0) {
+            throw new BadRequestException("Waitlist entry is no longer active");
+        }
+        // The queue and the hold are only touched once the cancellation is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dequeue(entry.getDoctorId(), entryId);
+                if (entry.getStatus() == WaitlistStatus.OFFERED && slotIndex.releaseHold(entry.getHoldId(), patientId)) {
+                    matcher.execute(() -> offer(entry.getDoctorId(), entry.getOfferedSlot(), entryId));
+                }
+            }
+        });
+    }
+
+    /**
+     * Ordered after DoctorSlotIndex has released the slot of a cancelled or rejected appointment.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentCommitted(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.BOOKED) {
+            matcher.execute(() -> fulfil(event.getPatientId(), event.getDoctorId(), event.getAppointmentDateTime()));
+        } else if (event.getType() == AppointmentEvent.Type.STATUS_CHANGED
+                && (event.getStatus() == AppointmentStatus.CANCELLED || event.getStatus() == AppointmentStatus.REJECTED)
+                && event.getAppointmentDateTime().isAfter(LocalDateTime.now())) {
+            matcher.execute(() -> offer(event.getDoctorId(), event.getAppointmentDateTime(), null));
+        }
+    }
+
+    /**
+     * Return lapsed offers to the queue, pass their slots on, and expire entries whose range has ended.
+     */
+    @Scheduled(fixedDelayString = "${app.waitlist.sweep-ms:30000}")
+    public void sweep() {
+        for (WaitlistResponse lapsed : waitlistRepository.findLapsedOffers(LocalDateTime.now())) {
+            if (changeStatus(lapsed.getId(), WaitlistStatus.OFFERED, WaitlistStatus.WAITING)) {
+                enqueue(lapsed);
+                matcher.execute(() -> offer(lapsed.getDoctorId(), lapsed.getOfferedSlot(), lapsed.getId()));
+            }
+        }
+        LocalDate today = LocalDate.now();
+        transactionTemplate.executeWithoutResult(status -> waitlistRepository.expireEnded(today));
+        synchronized (this) {
+            queues.values().forEach(queue -> queue.removeIf(waiting -> waiting.toDate().isBefore(today)));
+        }
+    }
+
+    /**
+     * Offer a freed slot to the best matching waiting patient, skipping the excluded entry.
+     */
+    private void offer(Long doctorId, LocalDateTime slot, Long excludedEntryId) {
+        if (!slot.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        int minutes = scheduleService.getSlotMinutes(doctorId);
+        Waiting candidate;
+        while ((candidate = poll(doctorId, slot.toLocalDate(), excludedEntryId)) != null) {
+            DoctorSlotIndex.Claim hold = slotIndex.hold(doctorId, slot, minutes, candidate.patientId(), offerTtlMillis);
+            if (hold == null) {
+                enqueue(doctorId, candidate);
+                return;
+            }
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(hold.getExpiresAt()), ZoneId.systemDefault());
+            Long entryId = candidate.id();
+            Integer updated = transactionTemplate.execute(status -> {
+                int count = waitlistRepository.updateOffer(
+                        entryId, WaitlistStatus.WAITING, WaitlistStatus.OFFERED, slot, hold.getHoldId(), expiresAt);
+                if (count == 1) {
+                    waitlistRepository.findResponseById(entryId)
+                            .ifPresent(offer -> eventPublisher.publishEvent(new WaitlistOfferEvent(offer)));
+                }
+                return count;
+            });
+            if (updated != null && updated == 1) {
+                return;
+            }
+            // The entry left the waitlist meanwhile; try the next one.
+            slotIndex.releaseHold(hold.getHoldId(), candidate.patientId());
+        }
+    }
+
+    private void fulfil(Long patientId, Long doctorId, LocalDateTime slot) {
+        for (WaitlistResponse offer : waitlistRepository.findOffers(patientId, doctorId, slot)) {
+            transactionTemplate.executeWithoutResult(status -> waitlistRepository.updateOffer(
+                    offer.getId(), WaitlistStatus.OFFERED, WaitlistStatus.FULFILLED, slot, null, null));
+        }
+    }
+
+    private boolean changeStatus(Long entryId, WaitlistStatus expected, WaitlistStatus status) {
+        Integer updated = transactionTemplate.execute(tx -> waitlistRepository.updateOffer(
+                entryId, expected, status, null, null, null));
+        return updated != null && updated == 1;
+    }
+
+    private synchronized Waiting poll(Long doctorId, LocalDate day, Long excludedEntryId) {
+        NavigableSet<Waiting> queue = queues.get(doctorId);
+        if (queue == null) {
+            return null;
+        }
+        for (Iterator<Waiting> it = queue.iterator(); it.hasNext(); ) {
+            Waiting waiting = it.next();
+            if (!waiting.id().equals(excludedEntryId)
+                    && !day.isBefore(waiting.fromDate()) && !day.isAfter(waiting.toDate())) {
+                it.remove();
+                return waiting;
+            }
+        }
+        return null;
+    }
+
+    private void enqueue(WaitlistResponse entry) {
+        enqueue(entry.getDoctorId(), new Waiting(entry.getId(), entry.getPatientId(), entry.getFromDate(),
+                entry.getToDate(), entry.getPriority(), entry.getCreatedAt()));
+    }
+
+    private synchronized void enqueue(Long doctorId, Waiting waiting) {
+        queues.computeIfAbsent(doctorId, id -> new TreeSet<>(BY_PRIORITY)).add(waiting);
+    }
+
+    /**
+     * Move a queued entry to its place for the new priority. Entries not in the queue (being offered)
+     * are left alone; they are re-queued from the database with their current priority.
+     */
+    private synchronized void reprioritize(Long doctorId, Long entryId, Integer priority) {
+        NavigableSet<Waiting> queue = queues.get(doctorId);
+        if (queue == null) {
+            return;
+        }
+        for (Waiting waiting : queue) {
+            if (waiting.id().equals(entryId)) {
+                queue.remove(waiting);
+                queue.add(new Waiting(waiting.id(), waiting.patientId(), waiting.fromDate(), waiting.toDate(),
+                        priority, waiting.createdAt()));
+                return;
+            }
+        }
+    }
+
+    private synchronized void dequeue(Long doctorId, Long entryId) {
+        NavigableSet<Waiting> queue = queues.get(doctorId);
+        if (queue != null) {
+            queue.removeIf(waiting -> waiting.id().equals(entryId));
+        }
+    }
+
+    private record Waiting(Long id, Long patientId, LocalDate fromDate, LocalDate toDate,
+                           Integer priority, LocalDateTime createdAt) {
+    }
+}
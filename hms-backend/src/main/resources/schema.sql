@@ -13,6 +13,7 @@ CREATE TABLE IF NOT EXISTS users (
     password VARCHAR(255) NOT NULL,
     phone VARCHAR(15),
     role ENUM('PATIENT', 'DOCTOR') NOT NULL,
+    token_version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 ) ENGINE=InnoDB;
 
@@ -26,9 +27,21 @@ CREATE TABLE IF NOT EXISTS doctors (
     consultation_fee DOUBLE,
     available BOOLEAN DEFAULT TRUE,
     bio TEXT,
+    slot_minutes INT,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- Doctor weekly working hours
+CREATE TABLE IF NOT EXISTS doctor_working_hours (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    day_of_week ENUM('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY') NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    INDEX idx_working_hours_doctor (doctor_id),
+    FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- Patients table
 CREATE TABLE IF NOT EXISTS patients (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -47,14 +60,30 @@ CREATE TABLE IF NOT EXISTS appointments (
     patient_id BIGINT NOT NULL,
     doctor_id BIGINT NOT NULL,
     appointment_date_time DATETIME NOT NULL,
-    status ENUM('PENDING', 'CONFIRMED', 'REJECTED', 'COMPLETED', 'CANCELLED') DEFAULT 'PENDING',
+    active_slot DATETIME NULL,
+    reminder_sent_at DATETIME NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'REJECTED', 'COMPLETED', 'CANCELLED', 'EXPIRED', 'NO_SHOW') DEFAULT 'PENDING',
     reason TEXT,
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_appointments_doctor_slot (doctor_id, active_slot),
+    INDEX idx_appointments_patient_time (patient_id, appointment_date_time, id),
+    INDEX idx_appointments_doctor_time (doctor_id, appointment_date_time, id),
+    INDEX idx_appointments_status (status, id),
+    INDEX idx_appointments_time (appointment_date_time),
     FOREIGN KEY (patient_id) REFERENCES patients(id) ON DELETE CASCADE,
     FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- Doctor booking days (one lockable row per doctor and day; serializes overlapping bookings)
+CREATE TABLE IF NOT EXISTS doctor_booking_days (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    booking_date DATE NOT NULL,
+    UNIQUE KEY uk_booking_days_doctor_date (doctor_id, booking_date),
+    FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- Payments table
 CREATE TABLE IF NOT EXISTS payments (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -77,7 +106,41 @@ CREATE TABLE IF NOT EXISTS prescriptions (
     medications TEXT NOT NULL,
     notes TEXT,
     issued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_prescriptions_patient_issued (patient_id, issued_at, id),
+    INDEX idx_prescriptions_doctor_issued (doctor_id, issued_at, id),
     FOREIGN KEY (appointment_id) REFERENCES appointments(id) ON DELETE CASCADE,
     FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE,
     FOREIGN KEY (patient_id) REFERENCES patients(id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
+
+-- Prescription items (one row per prescribed medication)
+CREATE TABLE IF NOT EXISTS prescription_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    prescription_id BIGINT NOT NULL,
+    drug_name VARCHAR(100) NOT NULL,
+    dose VARCHAR(50) NOT NULL,
+    frequency VARCHAR(50) NOT NULL,
+    duration_days INT NOT NULL,
+    INDEX idx_prescription_items_prescription (prescription_id),
+    INDEX idx_prescription_items_drug (drug_name),
+    FOREIGN KEY (prescription_id) REFERENCES prescriptions(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Waitlist entries (patients waiting for freed slots)
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    patient_id BIGINT NOT NULL,
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    priority INT NOT NULL DEFAULT 0,
+    status ENUM('WAITING', 'OFFERED', 'FULFILLED', 'CANCELLED', 'EXPIRED') NOT NULL DEFAULT 'WAITING',
+    offered_slot DATETIME NULL,
+    hold_id VARCHAR(36) NULL,
+    offer_expires_at DATETIME NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_waitlist_status (status, id),
+    INDEX idx_waitlist_patient (patient_id, created_at),
+    FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE,
+    FOREIGN KEY (patient_id) REFERENCES patients(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
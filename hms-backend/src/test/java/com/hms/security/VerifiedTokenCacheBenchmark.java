@@ -0,0 +1,95 @@
+package com.hms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Timed harness comparing a full JWT verification with a {@link VerifiedTokenCache} hit, on one thread
+ * and on all cores. Not picked up by a plain {@code mvn test}; run it explicitly with
+ * {@code mvn test -Dtest=VerifiedTokenCacheBenchmark}.
+ */
+class VerifiedTokenCacheBenchmark {
+
+    private static final int TOKENS = 1_000;
+    private static final long WARMUP_MS = 2_000;
+    private static final long MEASURE_MS = 3_000;
+
+    @Test
+    void verifyVersusCacheHit() throws InterruptedException {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKey key = Keys.hmacShaKeyFor(secret);
+        JwtParser parser = Jwts.parser().verifyWith(key).build();
+        Date expiry = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+
+        List<String> tokens = new ArrayList<>(TOKENS);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10_000);
+        for (int i = 0; i < TOKENS; i++) {
+            String token = Jwts.builder().subject("user" + i + "@hms.com").claim("uid", (long) i)
+                    .claim("role", "PATIENT").claim("ver", 0).expiration(expiry).signWith(key).compact();
+            tokens.add(token);
+            cache.put(token, parser.parseSignedClaims(token).getPayload());
+        }
+        // Requests carry a freshly decoded header value, not the instance the cache was filled with
+        String[] requests = tokens.stream().map(token -> new String(token.toCharArray())).toArray(String[]::new);
+        int cores = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        report("verify (jjwt)", 1, run(1, i -> parser.parseSignedClaims(requests[i % TOKENS]).getPayload()));
+        report("cache hit", 1, run(1, i -> cache.get(requests[i % TOKENS])));
+        report("cache hit", cores, run(cores, i -> cache.get(requests[i % TOKENS])));
+    }
+
+    private interface Op {
+        Claims apply(int i);
+    }
+
+    /**
+     * Operations per second over {@link #MEASURE_MS}, after a warmup of {@link #WARMUP_MS}.
+     */
+    private static double run(int threads, Op op) throws InterruptedException {
+        AtomicLong measured = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MS);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            Thread worker = new Thread(() -> {
+                long ops = 0;
+                int i = offset;
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    for (int n = 0; n < 64; n++) {
+                        assertNotNull(op.apply(i++ & Integer.MAX_VALUE));
+                    }
+                    if (now >= measureFrom) {
+                        ops += 64;
+                    }
+                }
+                measured.addAndGet(ops);
+                done.countDown();
+            });
+            worker.start();
+        }
+        done.await();
+        return measured.get() * 1_000.0 / MEASURE_MS;
+    }
+
+    private static void report(String name, int threads, double opsPerSecond) {
+        System.out.printf("%-15s %2d thread(s): %,14.0f ops/s%n", name, threads, opsPerSecond);
+    }
+}
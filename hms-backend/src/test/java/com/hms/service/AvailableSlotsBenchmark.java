@@ -0,0 +1,90 @@
+package com.hms.service;
+
+import com.hms.dto.AvailableSlotsResponse;
+import com.hms.dto.DoctorResponse;
+import com.hms.dto.WorkingHoursResponse;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.DoctorWorkingHoursRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Timed harness for {@link DoctorScheduleService#getAvailableSlots} over a 30-day window.
+ * The doctor works 08:00-18:00 Monday to Saturday in 15-minute slots, and every other slot is booked.
+ * Repositories are mocked: once the template is cached, the call reads only the template and the
+ * in-memory {@link DoctorSlotIndex}. Not picked up by a plain {@code mvn test}; run it explicitly with
+ * {@code mvn test -Dtest=AvailableSlotsBenchmark}.
+ */
+class AvailableSlotsBenchmark {
+
+    private static final long DOCTOR_ID = 1L;
+    private static final int SLOT_MINUTES = 15;
+    private static final int WINDOW_DAYS = 30;
+    private static final long WARMUP_MS = 2_000;
+    private static final long MEASURE_MS = 3_000;
+
+    @Test
+    void thirtyDayWindow() {
+        List<WorkingHoursResponse> hours = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day != DayOfWeek.SUNDAY) {
+                hours.add(new WorkingHoursResponse(day, LocalTime.of(8, 0), LocalTime.of(18, 0)));
+            }
+        }
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findSlotMinutesById(DOCTOR_ID)).thenReturn(Optional.of(SLOT_MINUTES));
+        DoctorWorkingHoursRepository workingHoursRepository = mock(DoctorWorkingHoursRepository.class);
+        when(workingHoursRepository.findResponsesByDoctorId(DOCTOR_ID)).thenReturn(hours);
+        DoctorDirectory doctorDirectory = mock(DoctorDirectory.class);
+        when(doctorDirectory.getById(DOCTOR_ID)).thenReturn(Optional.of(
+                DoctorResponse.builder().id(DOCTOR_ID).available(true).build()));
+
+        DoctorSlotIndex slotIndex = new DoctorSlotIndex();
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(WINDOW_DAYS - 1);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (LocalDateTime slot = date.atTime(8, 0); slot.isBefore(date.atTime(18, 0));
+                 slot = slot.plusMinutes(2 * SLOT_MINUTES)) {
+                slotIndex.reserve(DOCTOR_ID, slot, SLOT_MINUTES);
+            }
+        }
+
+        DoctorScheduleService service = new DoctorScheduleService();
+        ReflectionTestUtils.setField(service, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(service, "workingHoursRepository", workingHoursRepository);
+        ReflectionTestUtils.setField(service, "doctorDirectory", doctorDirectory);
+        ReflectionTestUtils.setField(service, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(service, "defaultSlotMinutes", 30);
+
+        AvailableSlotsResponse response = service.getAvailableSlots(DOCTOR_ID, from, to);
+        assertFalse(response.getSlots().isEmpty());
+
+        long measured = 0;
+        long slots = 0;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MS);
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            slots += service.getAvailableSlots(DOCTOR_ID, from, to).getSlots().size();
+            if (now >= measureFrom) {
+                measured++;
+            }
+        }
+        System.out.printf("%d-day window, %d free slots: %,.1f us per call (%d calls, checksum %d)%n",
+                WINDOW_DAYS, response.getSlots().size(), MEASURE_MS * 1_000.0 / measured, measured, slots);
+    }
+}
@@ -45,9 +45,13 @@ export function AuthProvider({ children }) {
     };
 
     /**
-     * Logout - clear stored data.
+     * Logout - revoke the session's tokens on the server and clear stored data.
      */
     const logout = () => {
+        const token = localStorage.getItem('token');
+        if (token) {
+            authAPI.logout(token).catch(() => {});
+        }
         localStorage.removeItem('token');
         localStorage.removeItem('user');
         setUser(null);
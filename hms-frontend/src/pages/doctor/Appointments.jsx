@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { appointmentAPI } from '../../services/api';
+import { appointmentAPI, subscribeToEvents } from '../../services/api';
 import { FiCheck, FiX, FiCheckCircle, FiFileText } from 'react-icons/fi';
 
 export default function DoctorAppointments() {
@@ -11,25 +11,59 @@ export default function DoctorAppointments() {
 
     useEffect(() => { fetchAppointments(); }, []);
 
+    // Keep the list current from the live event stream instead of re-fetching after every change
+    useEffect(() => subscribeToEvents((type, event) => {
+        if (type === 'BOOKED' || type === 'RESYNC') { fetchAppointments(); return; }
+        setAppointments(prev => prev.map(a => a.id !== event.appointmentId ? a : {
+            ...a,
+            status: event.status,
+            hasPrescription: a.hasPrescription || type === 'PRESCRIPTION_ISSUED',
+            hasPayment: a.hasPayment || type === 'PAYMENT_COMPLETED',
+        }));
+    }), []);
+
     const fetchAppointments = async () => {
         try { const res = await appointmentAPI.getDoctorAppointments(); setAppointments(res.data.data || []); }
         catch (err) { console.error(err); }
         finally { setLoading(false); }
     };
 
+    const applyUpdated = (updated) => {
+        const byId = new Map(updated.map(a => [a.id, a]));
+        setAppointments(prev => prev.map(a => byId.get(a.id) || a));
+    };
+
     const updateStatus = async (id, status) => {
-        try { await appointmentAPI.updateStatus(id, status); fetchAppointments(); }
+        try { const res = await appointmentAPI.updateStatus(id, status); applyUpdated([res.data.data]); }
+        catch (err) { alert(err.response?.data?.message || 'Update failed'); }
+    };
+
+    const updateAllPending = async (status) => {
+        const updates = appointments.filter(a => a.status === 'PENDING').map(a => ({ appointmentId: a.id, status }));
+        if (updates.length === 0) return;
+        try {
+            const res = await appointmentAPI.updateStatuses(updates);
+            const results = res.data.data || [];
+            applyUpdated(results.filter(r => r.success).map(r => r.appointment));
+            const failed = results.filter(r => !r.success);
+            if (failed.length > 0) alert(`${failed.length} update(s) failed: ${failed[0].message}`);
+        }
         catch (err) { alert(err.response?.data?.message || 'Update failed'); }
     };
 
     const filtered = filter === 'ALL' ? appointments : appointments.filter(a => a.status === filter);
-    const statuses = ['ALL', 'PENDING', 'CONFIRMED', 'COMPLETED', 'REJECTED'];
+    const statuses = ['ALL', 'PENDING', 'CONFIRMED', 'COMPLETED', 'REJECTED', 'NO_SHOW'];
 
     if (loading) return <div className="flex items-center justify-center h-64"><div className="animate-spin rounded-full h-12 w-12 border-t-2 border-primary-500"></div></div>;
 
     return (
         <div className="space-y-6 animate-fade-in">
-            <h1 className="text-2xl font-bold text-dark-100">Manage Appointments</h1>
+            <div className="flex items-center justify-between gap-4 flex-wrap">
+                <h1 className="text-2xl font-bold text-dark-100">Manage Appointments</h1>
+                {appointments.some(a => a.status === 'PENDING') && (
+                    <button onClick={() => updateAllPending('CONFIRMED')} className="px-3 py-1.5 rounded-lg bg-green-500/10 text-green-400 border border-green-500/30 text-xs font-medium hover:bg-green-500/20 flex items-center gap-1"><FiCheck size={12} /> Accept all pending</button>
+                )}
+            </div>
             <div className="flex gap-2 flex-wrap">
                 {statuses.map(s => (<button key={s} onClick={() => setFilter(s)} className={`px-3 py-1.5 rounded-lg text-xs font-medium transition-all ${filter === s ? 'gradient-btn text-white' : 'bg-dark-800/50 text-dark-400 hover:text-dark-200 border border-dark-700'}`}>{s}</button>))}
             </div>
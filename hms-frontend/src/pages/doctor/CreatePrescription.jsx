@@ -1,19 +1,23 @@
 import { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { appointmentAPI, prescriptionAPI } from '../../services/api';
-import { FiFileText, FiArrowLeft } from 'react-icons/fi';
+import { appointmentAPI, prescriptionAPI, drugAPI } from '../../services/api';
+import { FiFileText, FiArrowLeft, FiPlus, FiTrash2 } from 'react-icons/fi';
+
+const emptyItem = () => ({ drugName: '', dose: '', frequency: '', durationDays: 5 });
 
 export default function CreatePrescription() {
     const { appointmentId } = useParams();
     const navigate = useNavigate();
     const [appt, setAppt] = useState(null);
     const [diagnosis, setDiagnosis] = useState('');
-    const [medications, setMedications] = useState('');
+    const [items, setItems] = useState([emptyItem()]);
+    const [suggestions, setSuggestions] = useState([]);
     const [notes, setNotes] = useState('');
     const [loading, setLoading] = useState(true);
     const [submitting, setSubmitting] = useState(false);
     const [error, setError] = useState('');
     const [success, setSuccess] = useState(false);
+    const [warnings, setWarnings] = useState([]);
 
     useEffect(() => {
         appointmentAPI.getById(appointmentId)
@@ -22,12 +26,23 @@ export default function CreatePrescription() {
             .finally(() => setLoading(false));
     }, [appointmentId]);
 
+    const updateItem = (index, field, value) => {
+        setItems(prev => prev.map((item, i) => i === index ? { ...item, [field]: value } : item));
+        if (field === 'drugName' && value.trim()) {
+            drugAPI.suggest(value).then(res => setSuggestions(res.data.data || [])).catch(() => setSuggestions([]));
+        }
+    };
+
     const handleSubmit = async (e) => {
         e.preventDefault(); setSubmitting(true); setError('');
         try {
-            await prescriptionAPI.create({ appointmentId: parseInt(appointmentId), diagnosis, medications, notes });
+            const lines = items.map(item => ({ ...item, durationDays: parseInt(item.durationDays) }));
+            const res = await prescriptionAPI.create({ appointmentId: parseInt(appointmentId), diagnosis, items: lines, notes });
+            const found = res.data.data?.warnings || [];
             setSuccess(true);
-            setTimeout(() => navigate('/doctor/appointments'), 1500);
+            setWarnings(found);
+            // Interaction warnings stay on screen until the doctor has read them
+            if (found.length === 0) setTimeout(() => navigate('/doctor/appointments'), 1500);
         } catch (err) { setError(err.response?.data?.message || 'Failed to create prescription'); }
         finally { setSubmitting(false); }
     };
@@ -47,9 +62,29 @@ export default function CreatePrescription() {
             <div className="glass-card p-6">
                 {error && <div className="mb-4 p-3 rounded-lg bg-red-500/10 border border-red-500/30 text-red-400 text-sm">{error}</div>}
                 {success && <div className="mb-4 p-3 rounded-lg bg-green-500/10 border border-green-500/30 text-green-400 text-sm">Prescription created successfully!</div>}
+                {warnings.length > 0 && (
+                    <div className="mb-4 p-3 rounded-lg bg-yellow-500/10 border border-yellow-500/30 text-yellow-300 text-sm space-y-1">
+                        <p className="font-semibold">Drug interactions found</p>
+                        {warnings.map((w, i) => <p key={i}><span className="font-medium">{w.severity}</span>: {w.drug} + {w.interactingDrug}{w.fromActivePrescription ? ' (active prescription)' : ''} — {w.description}</p>)}
+                        <button type="button" onClick={() => navigate('/doctor/appointments')} className="mt-2 text-primary-400 hover:text-primary-300">Continue →</button>
+                    </div>
+                )}
                 <form onSubmit={handleSubmit} className="space-y-5">
                     <div><label className="input-label">Diagnosis *</label><textarea value={diagnosis} onChange={e => setDiagnosis(e.target.value)} className="input-field" rows="2" placeholder="Enter diagnosis..." required /></div>
-                    <div><label className="input-label">Medications *</label><textarea value={medications} onChange={e => setMedications(e.target.value)} className="input-field" rows="4" placeholder="Enter medications (one per line)..." required /></div>
+                    <div>
+                        <label className="input-label">Medications *</label>
+                        <datalist id="drug-suggestions">{suggestions.map(d => <option key={d.name} value={d.name}>{d.drugClass}</option>)}</datalist>
+                        <div className="space-y-2">{items.map((item, i) => (
+                            <div key={i} className="grid grid-cols-12 gap-2 items-center">
+                                <input list="drug-suggestions" value={item.drugName} onChange={e => updateItem(i, 'drugName', e.target.value)} className="input-field col-span-4" placeholder="Drug" required />
+                                <input value={item.dose} onChange={e => updateItem(i, 'dose', e.target.value)} className="input-field col-span-2" placeholder="Dose" required />
+                                <input value={item.frequency} onChange={e => updateItem(i, 'frequency', e.target.value)} className="input-field col-span-3" placeholder="Frequency" required />
+                                <input type="number" min="1" max="365" value={item.durationDays} onChange={e => updateItem(i, 'durationDays', e.target.value)} className="input-field col-span-2" placeholder="Days" required />
+                                <button type="button" onClick={() => setItems(prev => prev.filter((_, j) => j !== i))} disabled={items.length === 1} className="col-span-1 text-dark-400 hover:text-red-400 disabled:opacity-30 flex justify-center"><FiTrash2 /></button>
+                            </div>
+                        ))}</div>
+                        <button type="button" onClick={() => setItems(prev => [...prev, emptyItem()])} className="mt-2 text-sm text-primary-400 hover:text-primary-300 flex items-center gap-1"><FiPlus size={14} /> Add medication</button>
+                    </div>
                     <div><label className="input-label">Additional Notes</label><textarea value={notes} onChange={e => setNotes(e.target.value)} className="input-field" rows="2" placeholder="Any additional notes..." /></div>
                     <button type="submit" disabled={submitting} className="w-full py-3 gradient-btn rounded-xl text-white font-semibold flex items-center justify-center gap-2 disabled:opacity-50">
                         {submitting ? <div className="animate-spin rounded-full h-5 w-5 border-t-2 border-white"></div> : <><FiFileText /> Issue Prescription</>}
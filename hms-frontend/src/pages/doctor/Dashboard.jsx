@@ -4,7 +4,7 @@ import { FiCalendar, FiClock, FiUsers, FiCheckCircle } from 'react-icons/fi';
 import { Link } from 'react-router-dom';
 
 export default function DoctorDashboard() {
-    const [appointments, setAppointments] = useState([]);
+    const [stats, setStats] = useState(null);
     const [todayAppts, setTodayAppts] = useState([]);
     const [loading, setLoading] = useState(true);
 
@@ -12,19 +12,17 @@ export default function DoctorDashboard() {
 
     const fetchData = async () => {
         try {
-            const [allRes, todayRes] = await Promise.all([
-                appointmentAPI.getDoctorAppointments(),
+            const [statsRes, todayRes] = await Promise.all([
+                appointmentAPI.getDoctorStats(),
                 appointmentAPI.getDoctorTodayAppointments(),
             ]);
-            setAppointments(allRes.data.data || []);
+            setStats(statsRes.data.data);
             setTodayAppts(todayRes.data.data || []);
         } catch (err) { console.error(err); }
         finally { setLoading(false); }
     };
 
-    const pending = appointments.filter(a => a.status === 'PENDING').length;
-    const confirmed = appointments.filter(a => a.status === 'CONFIRMED').length;
-    const completed = appointments.filter(a => a.status === 'COMPLETED').length;
+    const byStatus = stats?.byStatus || {};
 
     if (loading) return <div className="flex items-center justify-center h-64"><div className="animate-spin rounded-full h-12 w-12 border-t-2 border-primary-500"></div></div>;
 
@@ -32,10 +30,10 @@ export default function DoctorDashboard() {
         <div className="space-y-6 animate-fade-in">
             <div><h1 className="text-2xl font-bold text-dark-100">Doctor Dashboard</h1><p className="text-dark-400 mt-1">Overview of your practice</p></div>
             <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-4">
-                <StatCard icon={<FiUsers />} label="Total Appointments" value={appointments.length} color="primary" />
-                <StatCard icon={<FiClock />} label="Pending" value={pending} color="yellow" />
-                <StatCard icon={<FiCalendar />} label="Confirmed" value={confirmed} color="blue" />
-                <StatCard icon={<FiCheckCircle />} label="Completed" value={completed} color="green" />
+                <StatCard icon={<FiUsers />} label="Total Appointments" value={stats?.totalAppointments || 0} color="primary" />
+                <StatCard icon={<FiClock />} label="Pending" value={byStatus.PENDING || 0} color="yellow" />
+                <StatCard icon={<FiCalendar />} label="Confirmed" value={byStatus.CONFIRMED || 0} color="blue" />
+                <StatCard icon={<FiCheckCircle />} label="Completed" value={byStatus.COMPLETED || 0} color="green" />
             </div>
             <div className="grid grid-cols-1 md:grid-cols-2 gap-4">
                 <Link to="/doctor/appointments" className="glass-card p-6 flex items-center gap-4 group">
@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { appointmentAPI } from '../../services/api';
-import { FiCalendar, FiDollarSign, FiFileText } from 'react-icons/fi';
+import { appointmentAPI, subscribeToEvents } from '../../services/api';
+import { FiCalendar, FiDollarSign, FiFileText, FiClock } from 'react-icons/fi';
 
 /**
  * Patient Appointments Page - view appointment history with status badges.
@@ -10,12 +10,30 @@ export default function PatientAppointments() {
     const [appointments, setAppointments] = useState([]);
     const [loading, setLoading] = useState(true);
     const [filter, setFilter] = useState('ALL');
+    const [offer, setOffer] = useState(null);
     const navigate = useNavigate();
 
     useEffect(() => {
         fetchAppointments();
     }, []);
 
+    // A slot offered from a waitlist is held for this patient only until the offer expires
+    useEffect(() => subscribeToEvents((type, event) => {
+        if (type === 'WAITLIST_OFFER') setOffer(event);
+        else fetchAppointments();
+    }), []);
+
+    const bookOffer = async () => {
+        try {
+            await appointmentAPI.book({ doctorId: offer.doctorId, appointmentDateTime: offer.offeredSlot, holdId: offer.holdId });
+            setOffer(null);
+            fetchAppointments();
+        } catch (err) {
+            alert(err.response?.data?.message || 'Booking failed');
+            setOffer(null);
+        }
+    };
+
     const fetchAppointments = async () => {
         try {
             const res = await appointmentAPI.getPatientAppointments();
@@ -28,7 +46,7 @@ export default function PatientAppointments() {
     };
 
     const filtered = filter === 'ALL' ? appointments : appointments.filter(a => a.status === filter);
-    const statuses = ['ALL', 'PENDING', 'CONFIRMED', 'COMPLETED', 'REJECTED', 'CANCELLED'];
+    const statuses = ['ALL', 'PENDING', 'CONFIRMED', 'COMPLETED', 'REJECTED', 'CANCELLED', 'EXPIRED', 'NO_SHOW'];
 
     if (loading) {
         return (
@@ -47,6 +65,20 @@ export default function PatientAppointments() {
                 </div>
             </div>
 
+            {offer && (
+                <div className="glass-card p-4 border border-green-500/30 flex flex-col md:flex-row md:items-center justify-between gap-3">
+                    <p className="text-sm text-dark-200">
+                        <FiClock className="inline mr-1" size={14} />
+                        A slot with <span className="font-semibold">{offer.doctorName}</span> opened up on {new Date(offer.offeredSlot).toLocaleString()}.
+                        It is held for you until {new Date(offer.offerExpiresAt).toLocaleTimeString()}.
+                    </p>
+                    <div className="flex gap-2">
+                        <button onClick={bookOffer} className="px-3 py-1.5 rounded-lg gradient-btn text-white text-xs font-medium">Book it</button>
+                        <button onClick={() => setOffer(null)} className="px-3 py-1.5 rounded-lg bg-dark-800/50 text-dark-400 border border-dark-700 text-xs font-medium">Dismiss</button>
+                    </div>
+                </div>
+            )}
+
             {/* Status Filters */}
             <div className="flex gap-2 flex-wrap">
                 {statuses.map(s => (
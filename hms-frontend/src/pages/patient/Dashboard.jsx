@@ -1,14 +1,13 @@
 import { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { appointmentAPI, prescriptionAPI } from '../../services/api';
+import { patientAPI } from '../../services/api';
 import { FiCalendar, FiFileText, FiSearch, FiClock } from 'react-icons/fi';
 
 /**
  * Patient Dashboard - overview of appointments, prescriptions, and quick actions.
  */
 export default function PatientDashboard() {
-    const [appointments, setAppointments] = useState([]);
-    const [prescriptions, setPrescriptions] = useState([]);
+    const [dashboard, setDashboard] = useState(null);
     const [loading, setLoading] = useState(true);
 
     useEffect(() => {
@@ -17,12 +16,8 @@ export default function PatientDashboard() {
 
     const fetchData = async () => {
         try {
-            const [apptRes, prescRes] = await Promise.all([
-                appointmentAPI.getPatientAppointments(),
-                prescriptionAPI.getPatientPrescriptions(),
-            ]);
-            setAppointments(apptRes.data.data || []);
-            setPrescriptions(prescRes.data.data || []);
+            const res = await patientAPI.getDashboard();
+            setDashboard(res.data.data);
         } catch (err) {
             console.error('Error fetching dashboard data:', err);
         } finally {
@@ -30,10 +25,10 @@ export default function PatientDashboard() {
         }
     };
 
-    const upcomingAppointments = appointments.filter(
-        a => ['PENDING', 'CONFIRMED'].includes(a.status)
-    );
-    const completedAppointments = appointments.filter(a => a.status === 'COMPLETED');
+    // Sections the server could not load in time come back as null
+    const counts = dashboard?.appointmentCounts || {};
+    const totalAppointments = Object.values(counts).reduce((sum, n) => sum + n, 0);
+    const upcomingAppointments = dashboard?.upcomingAppointments || [];
 
     if (loading) {
         return (
@@ -52,10 +47,10 @@ export default function PatientDashboard() {
 
             {/* Stats Cards */}
             <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-4">
-                <StatCard icon={<FiCalendar />} label="Total Appointments" value={appointments.length} color="primary" />
-                <StatCard icon={<FiClock />} label="Upcoming" value={upcomingAppointments.length} color="blue" />
-                <StatCard icon={<FiCalendar />} label="Completed" value={completedAppointments.length} color="green" />
-                <StatCard icon={<FiFileText />} label="Prescriptions" value={prescriptions.length} color="purple" />
+                <StatCard icon={<FiCalendar />} label="Total Appointments" value={totalAppointments} color="primary" />
+                <StatCard icon={<FiClock />} label="Upcoming" value={(counts.PENDING || 0) + (counts.CONFIRMED || 0)} color="blue" />
+                <StatCard icon={<FiCalendar />} label="Completed" value={counts.COMPLETED || 0} color="green" />
+                <StatCard icon={<FiFileText />} label="Prescriptions" value={dashboard?.prescriptionCount ?? 0} color="purple" />
             </div>
 
             {/* Quick Actions */}
@@ -93,7 +88,7 @@ export default function PatientDashboard() {
                     </div>
                 ) : (
                     <div className="space-y-3">
-                        {upcomingAppointments.slice(0, 5).map(appt => (
+                        {upcomingAppointments.map(appt => (
                             <div key={appt.id} className="glass-card p-4 flex items-center justify-between">
                                 <div>
                                     <p className="font-medium text-dark-100">{appt.doctorName}</p>
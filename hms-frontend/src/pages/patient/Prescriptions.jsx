@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
-import { prescriptionAPI } from '../../services/api';
-import { FiFileText, FiCalendar } from 'react-icons/fi';
+import { prescriptionAPI, openPrescriptionDocument } from '../../services/api';
+import { FiFileText, FiCalendar, FiPrinter } from 'react-icons/fi';
 
 export default function PatientPrescriptions() {
     const [prescriptions, setPrescriptions] = useState([]);
@@ -17,6 +17,12 @@ export default function PatientPrescriptions() {
         finally { setLoading(false); }
     };
 
+    const printPrescription = async (e, id) => {
+        e.stopPropagation();
+        try { await openPrescriptionDocument(id); }
+        catch (err) { alert(err.message); }
+    };
+
     if (loading) return <div className="flex items-center justify-center h-64"><div className="animate-spin rounded-full h-12 w-12 border-t-2 border-primary-500"></div></div>;
 
     return (
@@ -34,10 +40,15 @@ export default function PatientPrescriptions() {
                             </div>
                             <div className="space-y-3">
                                 <div><label className="text-xs font-semibold text-dark-400 uppercase">Diagnosis</label><p className="text-sm text-dark-200 mt-1">{rx.diagnosis}</p></div>
-                                <div><label className="text-xs font-semibold text-dark-400 uppercase">Medications</label><p className="text-sm text-dark-200 mt-1 whitespace-pre-line">{rx.medications}</p></div>
+                                <div><label className="text-xs font-semibold text-dark-400 uppercase">Medications</label>{rx.items?.length > 0 ? (
+                                    <ul className="text-sm text-dark-200 mt-1 space-y-1">{rx.items.map(item => <li key={item.drugName}><span className="font-medium">{item.drugName}</span> {item.dose} · {item.frequency} · {item.durationDays} {item.durationDays === 1 ? 'day' : 'days'}</li>)}</ul>
+                                ) : <p className="text-sm text-dark-200 mt-1 whitespace-pre-line">{rx.medications}</p>}</div>
                                 {selected === rx.id && rx.notes && (<div className="animate-slide-up"><label className="text-xs font-semibold text-dark-400 uppercase">Notes</label><p className="text-sm text-dark-200 mt-1">{rx.notes}</p></div>)}
                             </div>
-                            <p className="text-xs text-dark-500 mt-3 pt-3 border-t border-dark-700/50">Appointment: {new Date(rx.appointmentDateTime).toLocaleString()}</p>
+                            <div className="flex items-center justify-between mt-3 pt-3 border-t border-dark-700/50">
+                                <p className="text-xs text-dark-500">Appointment: {new Date(rx.appointmentDateTime).toLocaleString()}</p>
+                                <button onClick={(e) => printPrescription(e, rx.id)} className="text-xs text-primary-400 hover:text-primary-300 flex items-center gap-1"><FiPrinter size={12} /> Print</button>
+                            </div>
                         </div>
                     ))}
                 </div>
@@ -37,6 +37,8 @@ api.interceptors.response.use(
 export const authAPI = {
     login: (data) => api.post('/auth/login', data),
     register: (data) => api.post('/auth/register', data),
+    // The token is passed explicitly because it is cleared from storage while the request is in flight
+    logout: (token) => api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }),
 };
 
 // ========== Doctor API ==========
@@ -47,22 +49,44 @@ export const doctorAPI = {
     getProfile: () => api.get('/doctors/profile'),
     updateProfile: (data) => api.put('/doctors/profile', data),
     updateAvailability: (available) => api.put('/doctors/availability', { available }),
+    getSchedule: (id) => api.get(`/doctors/${id}/schedule`),
+    updateSchedule: (data) => api.put('/doctors/schedule', data),
+    getSlots: (id, from, to) => api.get(`/doctors/${id}/slots`, { params: { from, to } }),
 };
 
 // ========== Patient API ==========
 export const patientAPI = {
     getProfile: () => api.get('/patients/profile'),
     updateProfile: (data) => api.put('/patients/profile', data),
+    getDashboard: () => api.get('/patients/dashboard'),
 };
 
 // ========== Appointment API ==========
 export const appointmentAPI = {
     book: (data) => api.post('/appointments', data),
-    getPatientAppointments: () => api.get('/appointments/patient'),
-    getDoctorAppointments: () => api.get('/appointments/doctor'),
+    holdSlot: (data) => api.post('/appointments/holds', data),
+    releaseHold: (holdId) => api.delete(`/appointments/holds/${holdId}`),
+    getPatientAppointments: (params) => api.get('/appointments/patient', { params }),
+    getDoctorAppointments: (params) => api.get('/appointments/doctor', { params }),
     getDoctorTodayAppointments: () => api.get('/appointments/doctor/today'),
+    getDoctorStats: () => api.get('/appointments/doctor/stats'),
     getById: (id) => api.get(`/appointments/${id}`),
     updateStatus: (id, status) => api.put(`/appointments/${id}/status`, { status }),
+    updateStatuses: (updates) => api.put('/appointments/status', { updates }),
+};
+
+// ========== Waitlist API ==========
+export const waitlistAPI = {
+    join: (data) => api.post('/waitlist', data),
+    getMine: () => api.get('/waitlist'),
+    leave: (id) => api.delete(`/waitlist/${id}`),
+    getDoctorEntries: () => api.get('/waitlist/doctor'),
+    setPriority: (id, priority) => api.put(`/waitlist/doctor/${id}/priority`, { priority }),
+};
+
+// ========== Drug Catalog API ==========
+export const drugAPI = {
+    suggest: (q, limit = 10) => api.get('/drugs/suggest', { params: { q, limit } }),
 };
 
 // ========== Payment API ==========
@@ -75,8 +99,102 @@ export const paymentAPI = {
 export const prescriptionAPI = {
     create: (data) => api.post('/prescriptions', data),
     getByAppointment: (appointmentId) => api.get(`/prescriptions/appointment/${appointmentId}`),
-    getPatientPrescriptions: () => api.get('/prescriptions/patient'),
-    getDoctorPrescriptions: () => api.get('/prescriptions/doctor'),
+    getPatientPrescriptions: (params) => api.get('/prescriptions/patient', { params }),
+    getDoctorPrescriptions: (params) => api.get('/prescriptions/doctor', { params }),
+};
+
+// Printable prescription, fetched with the auth header and opened in a new tab
+export const openPrescriptionDocument = async (id) => {
+    const tab = window.open('', '_blank');
+    try {
+        const res = await fetch(`/api/prescriptions/${id}/document`, {
+            headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+        });
+        if (!res.ok) throw new Error('Failed to load prescription document');
+        const url = URL.createObjectURL(await res.blob());
+        tab.location.href = url;
+        setTimeout(() => URL.revokeObjectURL(url), 60000);
+    } catch (err) {
+        tab.close();
+        throw err;
+    }
 };
 
 export default api;
+
+// ========== Live Events (SSE) ==========
+// Uses fetch instead of EventSource so the JWT can be sent in the Authorization header.
+// Calls onEvent(type, data) for every event and reconnects after a short delay; returns an unsubscribe function.
+export const subscribeToEvents = (onEvent) => {
+    const controller = new AbortController();
+    const connect = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                const res = await fetch('/api/events/stream', {
+                    headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+                    signal: controller.signal,
+                });
+                if (res.status === 401) return;
+                const reader = res.body.getReader();
+                const decoder = new TextDecoder();
+                let buffer = '';
+                for (;;) {
+                    const { done, value } = await reader.read();
+                    if (done) break;
+                    buffer += decoder.decode(value, { stream: true });
+                    let end;
+                    while ((end = buffer.indexOf('\n\n')) !== -1) {
+                        const block = buffer.slice(0, end);
+                        buffer = buffer.slice(end + 2);
+                        let type = null, data = '';
+                        for (const line of block.split('\n')) {
+                            if (line.startsWith('event:')) type = line.slice(6).trim();
+                            else if (line.startsWith('data:')) data += line.slice(5);
+                        }
+                        if (type) onEvent(type, data ? JSON.parse(data) : null);
+                    }
+                }
+            } catch (err) {
+                if (controller.signal.aborted) return;
+            }
+            await new Promise(resolve => setTimeout(resolve, 3000));
+        }
+    };
+    connect();
+    return () => controller.abort();
+};
+
+// ========== Timeline (NDJSON stream) ==========
+// Calls onEntry for each timeline entry as it arrives; resolves to the cursor for the next part, or null.
+export const streamTimeline = async (onEntry, { patientId, cursor, limit } = {}) => {
+    const params = new URLSearchParams();
+    if (cursor) params.set('cursor', cursor);
+    if (limit) params.set('limit', limit);
+    const path = patientId ? `/api/timeline/patients/${patientId}` : '/api/timeline';
+    const res = await fetch(`${path}?${params}`, {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+    });
+    if (!res.ok) throw new Error((await res.json()).message || 'Failed to load timeline');
+    const reader = res.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let nextCursor = null;
+    const handle = (line) => {
+        if (!line) return;
+        const item = JSON.parse(line);
+        if (item.nextCursor) nextCursor = item.nextCursor;
+        else onEntry(item);
+    };
+    for (;;) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        let end;
+        while ((end = buffer.indexOf('\n')) !== -1) {
+            handle(buffer.slice(0, end));
+            buffer = buffer.slice(end + 1);
+        }
+    }
+    handle(buffer);
+    return nextCursor;
+};